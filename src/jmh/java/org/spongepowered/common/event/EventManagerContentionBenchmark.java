@@ -0,0 +1,130 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Optional;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.EventHandler;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.plugin.PluginManager;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of posting an event on the benchmark ("main") thread
+ * while other threads continuously register and unregister handlers for a
+ * super type of the posted event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EventManagerContentionBenchmark {
+
+    private static final int HANDLERS = 10;
+
+    @Param({"0", "16"})
+    public int churnThreads;
+
+    @Param({"false", "true"})
+    public boolean dispatcherClasses;
+
+    private SpongeEventManager eventManager;
+    private Event event;
+    private ExecutorService churnExecutor;
+    private volatile boolean running;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Object plugin = new Object();
+        PluginManager pluginManager = mock(PluginManager.class);
+        when(pluginManager.fromInstance(any())).thenReturn(Optional.of(mock(PluginContainer.class)));
+
+        this.eventManager = new SpongeEventManager(pluginManager, this.dispatcherClasses);
+        this.event = mock(Event.class);
+        for (int i = 0; i < HANDLERS; i++) {
+            this.eventManager.register(plugin, Event.class, new NoopHandler());
+        }
+        this.eventManager.post(this.event);
+
+        this.running = true;
+        this.churnExecutor = Executors.newFixedThreadPool(Math.max(1, this.churnThreads));
+        for (int i = 0; i < this.churnThreads; i++) {
+            this.churnExecutor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    while (EventManagerContentionBenchmark.this.running) {
+                        NoopHandler handler = new NoopHandler();
+                        EventManagerContentionBenchmark.this.eventManager.register(plugin, Event.class, handler);
+                        EventManagerContentionBenchmark.this.eventManager.unregister(handler);
+                    }
+                }
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        this.running = false;
+        this.churnExecutor.shutdown();
+        this.churnExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public boolean post() {
+        return this.eventManager.post(this.event);
+    }
+
+    private static final class NoopHandler implements EventHandler<Event> {
+
+        @Override
+        public void handle(Event event) throws Exception {
+        }
+
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.scheduler;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.common.configuration.SpongeConfig;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link AsyncScheduler}.
+ *
+ * <p>{@link #wakeUp} submits a task with a fixed delay and waits for it to
+ * start, so the sampled times minus the delay are the wake-up jitter of the
+ * scheduler thread and the pool. The {@code churn} group submits delayed tasks
+ * from several threads while cancelling half of them, measuring the throughput
+ * of {@code addTask} and cancellation under contention.</p>
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AsyncSchedulerBenchmark {
+
+    @Param({"0", "1", "10"})
+    public long delayMillis;
+
+    private PluginContainer plugin;
+    private AsyncScheduler scheduler;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.plugin = mock(PluginContainer.class);
+        when(this.plugin.getId()).thenReturn("benchmark");
+        this.scheduler = new AsyncScheduler(new SpongeConfig.SchedulerCategory());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void wakeUp() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        this.scheduler.addTask(new ScheduledTask(ScheduledTask.TaskSynchronicity.ASYNCHRONOUS, new Runnable() {
+
+            @Override
+            public void run() {
+                started.countDown();
+            }
+        }, null, this.delayMillis, false, 0, false, this.plugin));
+        started.await();
+    }
+
+    @State(Scope.Thread)
+    public static class Submitter {
+
+        final Random random = new Random();
+        final Runnable body = new Runnable() {
+
+            @Override
+            public void run() {
+            }
+        };
+
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(4)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ScheduledTask churn(Submitter submitter) {
+        ScheduledTask task = new ScheduledTask(ScheduledTask.TaskSynchronicity.ASYNCHRONOUS, submitter.body, null,
+                this.delayMillis + submitter.random.nextInt(50), false, 0, false, this.plugin);
+        this.scheduler.addTask(task);
+        if (submitter.random.nextBoolean()) {
+            task.cancel();
+        }
+        return task;
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.scheduler;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.common.configuration.SpongeConfig;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a {@link SyncScheduler} tick against the number of
+ * pending tasks, either all waiting far in the future or repeating at
+ * intervals of up to a minute so that a share of them is due every tick.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SyncSchedulerTickBenchmark {
+
+    private static final int MAX_INTERVAL = 1200;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int pendingTasks;
+
+    @Param({"idle", "repeating"})
+    public String workload;
+
+    private SyncScheduler scheduler;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PluginContainer plugin = mock(PluginContainer.class);
+        when(plugin.getId()).thenReturn("benchmark");
+
+        this.scheduler = new SyncScheduler(new SpongeConfig.SchedulerCategory());
+        Runnable body = new Runnable() {
+
+            @Override
+            public void run() {
+            }
+        };
+        Random random = new Random(0);
+        boolean repeating = this.workload.equals("repeating");
+        for (int i = 0; i < this.pendingTasks; i++) {
+            ScheduledTask task;
+            if (repeating) {
+                task = new ScheduledTask(ScheduledTask.TaskSynchronicity.SYNCHRONOUS, body, null, random.nextInt(MAX_INTERVAL), true,
+                        1 + random.nextInt(MAX_INTERVAL), true, plugin);
+            } else {
+                task = new ScheduledTask(ScheduledTask.TaskSynchronicity.SYNCHRONOUS, body, null, Integer.MAX_VALUE, true, 0, true, plugin);
+            }
+            this.scheduler.addTask(task);
+        }
+        // Moves the submitted tasks onto the timing wheels
+        this.scheduler.tick();
+    }
+
+    @Benchmark
+    public void tick() {
+        this.scheduler.tick();
+    }
+
+}
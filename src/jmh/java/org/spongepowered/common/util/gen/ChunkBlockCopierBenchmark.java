@@ -0,0 +1,171 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import static org.mockito.Mockito.mock;
+
+import com.flowpowered.math.vector.Vector3i;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.util.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldProviderSurface;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkPrimer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares copying a whole populated chunk into and out of a block buffer
+ * with {@link ChunkBlockCopier} against per-block access through
+ * {@link Chunk#getBlockState(BlockPos)} and
+ * {@link Chunk#setBlockState(BlockPos, IBlockState)}.
+ *
+ * <p>The per-block benchmarks call the chunk directly, leaving out the chunk
+ * lookup {@code World#getBlock} and {@code World#setBlock} do for every
+ * block, and store state ids into the buffer array the way
+ * {@link CharArrayMutableBlockBuffer#setBlock} does. Writes alternate
+ * between two buffers, so each of them changes all stone blocks of the
+ * chunk. The world is a mock that only provides the world provider, so
+ * block updates and light updates outside the chunk are not measured.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ChunkBlockCopierBenchmark {
+
+    private static final int HEIGHT = 256;
+    private static final int SURFACE = 64;
+
+    private Chunk chunk;
+    private CharArrayMutableBlockBuffer buffer;
+    private CharArrayMutableBlockBuffer stone;
+    private CharArrayMutableBlockBuffer cobblestone;
+    private boolean toggle;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Bootstrap.register();
+        World world = mock(World.class);
+        Field provider = World.class.getDeclaredField("provider");
+        provider.setAccessible(true);
+        provider.set(world, new WorldProviderSurface());
+
+        // Stone with scattered ores below a dirt and grass surface
+        ChunkPrimer primer = new ChunkPrimer();
+        Random random = new Random(0);
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                primer.setBlockState(x, 0, z, Blocks.bedrock.getDefaultState());
+                for (int y = 1; y < SURFACE - 4; y++) {
+                    int ore = random.nextInt(100);
+                    primer.setBlockState(x, y, z, (ore == 0 ? Blocks.iron_ore : ore < 3 ? Blocks.coal_ore : Blocks.stone).getDefaultState());
+                }
+                for (int y = SURFACE - 4; y < SURFACE; y++) {
+                    primer.setBlockState(x, y, z, Blocks.dirt.getDefaultState());
+                }
+                primer.setBlockState(x, SURFACE, z, Blocks.grass.getDefaultState());
+            }
+        }
+        this.chunk = new Chunk(world, primer, 0, 0);
+        this.chunk.generateSkylightMap();
+
+        Vector3i size = new Vector3i(16, HEIGHT, 16);
+        this.buffer = new CharArrayMutableBlockBuffer(Vector3i.ZERO, size);
+        this.stone = new CharArrayMutableBlockBuffer(Vector3i.ZERO, size);
+        ChunkBlockCopier.read(this.chunk, this.stone);
+        this.cobblestone = new CharArrayMutableBlockBuffer(Vector3i.ZERO, size);
+        char stoneId = (char) Block.BLOCK_STATE_IDS.get(Blocks.stone.getDefaultState());
+        char cobblestoneId = (char) Block.BLOCK_STATE_IDS.get(Blocks.cobblestone.getDefaultState());
+        for (int i = 0; i < this.stone.blocks.length; i++) {
+            this.cobblestone.blocks[i] = this.stone.blocks[i] == stoneId ? cobblestoneId : this.stone.blocks[i];
+        }
+    }
+
+    @Benchmark
+    public CharArrayMutableBlockBuffer readCopier() {
+        ChunkBlockCopier.read(this.chunk, this.buffer);
+        return this.buffer;
+    }
+
+    @Benchmark
+    public CharArrayMutableBlockBuffer readPerBlock() {
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    this.buffer.blocks[this.buffer.getIndex(x, y, z)] =
+                            (char) Block.BLOCK_STATE_IDS.get(this.chunk.getBlockState(new BlockPos(x, y, z)));
+                }
+            }
+        }
+        return this.buffer;
+    }
+
+    @Benchmark
+    public int writeCopier() {
+        return ChunkBlockCopier.write(this.chunk, nextWriteBuffer());
+    }
+
+    @Benchmark
+    public int writePerBlock() {
+        CharArrayMutableBlockBuffer buffer = nextWriteBuffer();
+        int changed = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    IBlockState state = (IBlockState) Block.BLOCK_STATE_IDS.getByValue(buffer.blocks[buffer.getIndex(x, y, z)]);
+                    if (this.chunk.setBlockState(new BlockPos(x, y, z), state) != null) {
+                        changed++;
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    private CharArrayMutableBlockBuffer nextWriteBuffer() {
+        this.toggle = !this.toggle;
+        return this.toggle ? this.cobblestone : this.stone;
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares radius queries on a {@link SpatialIndex} of entities spread over
+ * a square of loaded area with a scan of all entities, and measures the cost
+ * of moving entities around in the index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SpatialIndexBenchmark {
+
+    // The side length of the square the entities are spread over
+    private static final int AREA = 2048;
+
+    @Param({"50000"})
+    public int entities;
+
+    @Param({"16", "64"})
+    public double radius;
+
+    private final List<Position> positions = new ArrayList<Position>();
+    private final List<SpatialIndex.Entry<Position>> entries = new ArrayList<SpatialIndex.Entry<Position>>();
+    private final List<Position> out = new ArrayList<Position>();
+    private SpatialIndex<Position> index;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.index = new SpatialIndex<Position>();
+        this.random = new Random(0);
+        for (int i = 0; i < this.entities; i++) {
+            Position position = new Position(this.random.nextDouble() * AREA, 40 + this.random.nextDouble() * 40,
+                    this.random.nextDouble() * AREA);
+            this.positions.add(position);
+            this.entries.add(this.index.add(position, position.x, position.y, position.z));
+        }
+    }
+
+    @Benchmark
+    public List<Position> queryIndex() {
+        this.out.clear();
+        this.index.queryRadius(this.random.nextDouble() * AREA, 60, this.random.nextDouble() * AREA, this.radius, Position.class, null,
+                this.out);
+        return this.out;
+    }
+
+    @Benchmark
+    public List<Position> queryScan() {
+        this.out.clear();
+        double x = this.random.nextDouble() * AREA;
+        double z = this.random.nextDouble() * AREA;
+        double radiusSquared = this.radius * this.radius;
+        for (Position position : this.positions) {
+            double dx = position.x - x;
+            double dy = position.y - 60;
+            double dz = position.z - z;
+            if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+                this.out.add(position);
+            }
+        }
+        return this.out;
+    }
+
+    @Benchmark
+    public void move() {
+        SpatialIndex.Entry<Position> entry = this.entries.get(this.random.nextInt(this.entities));
+        Position position = entry.getValue();
+        position.x = Math.max(0, Math.min(AREA, position.x + this.random.nextDouble() * 2 - 1));
+        position.z = Math.max(0, Math.min(AREA, position.z + this.random.nextDouble() * 2 - 1));
+        entry.update(position.x, position.y, position.z);
+    }
+
+    static final class Position {
+
+        double x;
+        double y;
+        double z;
+
+        Position(double x, double y, double z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+
+}
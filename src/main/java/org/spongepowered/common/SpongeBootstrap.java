@@ -44,6 +44,7 @@
 import org.spongepowered.api.world.DimensionType;
 import org.spongepowered.common.command.CommandSponge;
 import org.spongepowered.common.command.SpongeCommandDisambiguator;
+import org.spongepowered.common.event.SpongeEventManager;
 import org.spongepowered.common.registry.SpongeGameRegistry;
 import org.spongepowered.common.service.pagination.SpongePaginationService;
 import org.spongepowered.common.service.persistence.SpongeSerializationService;
@@ -122,6 +123,17 @@ public static void initializeRegistry() {
 
     public static void postInitializeRegistry() {
         ((SpongeGameRegistry) Sponge.getGame().getRegistry()).postInit();
+        warmUpEventHandlers();
+    }
+
+    /**
+     * Resolves the event type hierarchies once plugins were initialized, to
+     * avoid hitches when events are posted for the first time.
+     */
+    public static void warmUpEventHandlers() {
+        if (Sponge.getGame().getEventManager() instanceof SpongeEventManager) {
+            ((SpongeEventManager) Sponge.getGame().getEventManager()).warmUp();
+        }
     }
 
     public static void registerWorlds() {
@@ -28,6 +28,7 @@
 import static org.spongepowered.api.util.command.args.GenericArguments.dimension;
 import static org.spongepowered.api.util.command.args.GenericArguments.firstParsing;
 import static org.spongepowered.api.util.command.args.GenericArguments.flags;
+import static org.spongepowered.api.util.command.args.GenericArguments.integer;
 import static org.spongepowered.api.util.command.args.GenericArguments.literal;
 import static org.spongepowered.api.util.command.args.GenericArguments.optional;
 import static org.spongepowered.api.util.command.args.GenericArguments.seq;
@@ -37,8 +38,12 @@
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.base.Optional;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.primitives.Longs;
 import net.minecraft.world.WorldProvider;
 import net.minecraft.world.WorldServer;
 import ninja.leaping.configurate.commented.CommentedConfigurationNode;
@@ -66,17 +71,29 @@
 import org.spongepowered.asm.mixin.MixinEnvironment;
 import org.spongepowered.common.Sponge;
 import org.spongepowered.common.configuration.SpongeConfig;
+import org.spongepowered.common.event.HandlerTimings;
+import org.spongepowered.common.event.RegisteredHandler;
+import org.spongepowered.common.event.SpongeEventManager;
 import org.spongepowered.common.interfaces.IMixinWorld;
 import org.spongepowered.common.interfaces.IMixinWorldProvider;
+import org.spongepowered.common.service.scheduler.SpongeScheduler;
+import org.spongepowered.common.service.scheduler.SyncScheduler;
+import org.spongepowered.common.service.scheduler.TaskMetrics;
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.world.DimensionManager;
 import org.spongepowered.common.world.SpongeDimensionType;
+import org.spongepowered.common.world.WorldPregenerator;
+import org.spongepowered.common.world.gen.CustomWorldChunkManager;
 
 import java.io.File;
 import java.text.SimpleDateFormat;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
 import javax.annotation.Nullable;
 
@@ -100,6 +117,8 @@ public static CommandSpec getCommand() {
         nonFlagChildren.register(getAuditCommand(), "audit");
         nonFlagChildren.register(getHeapCommand(), "heap");
         nonFlagChildren.register(getPluginsCommand(), "plugins");
+        nonFlagChildren.register(getPregenCommand(), "pregen");
+        nonFlagChildren.register(getTimingsCommand(), "timings");
         flagChildren.register(getChunksCommand(), "chunks");
         flagChildren.register(getConfigCommand(), "config");
         flagChildren.register(getReloadCommand(), "reload"); // TODO: Should these two be subcommands of config, and what is now config be set?
@@ -114,7 +133,9 @@ INDENT, title("reload"), LONG_INDENT, "Reloads a global, dimension, or world con
                         INDENT, title("save"), LONG_INDENT, "Saves a global, dimension, or world config\n",
                         INDENT, title("version"), LONG_INDENT, "Prints current Sponge version\n",
                         INDENT, title("audit"), LONG_INDENT, "Audit mixin classes for implementation",
-                        INDENT, title("plugins"), LONG_INDENT, "List currently installed plugins"))
+                        INDENT, title("plugins"), LONG_INDENT, "List currently installed plugins\n",
+                        INDENT, title("pregen"), LONG_INDENT, "Pregenerate the chunks around the spawn of a world\n",
+                        INDENT, title("timings"), LONG_INDENT, "Report timings of event handlers and scheduled tasks"))
                 .arguments(firstParsing(nonFlagChildren, flags()
                         .flag("-global", "g")
                         .valueFlag(world(Texts.of("world"), Sponge.getGame()), "-world", "w")
@@ -238,7 +259,7 @@ protected Text value(Object text) {
                     }
 
                     protected Text getChunksInfo(WorldServer worldserver) {
-                        return Texts.of(NEWLINE_TEXT, key("Dimension: "), value(worldserver.provider.getDimensionId()), NEWLINE_TEXT,
+                        Text info = Texts.of(NEWLINE_TEXT, key("Dimension: "), value(worldserver.provider.getDimensionId()), NEWLINE_TEXT,
                                 key("Loaded chunks: "), value(worldserver.theChunkProviderServer.getLoadedChunkCount()), NEWLINE_TEXT,
                                 key("Active chunks: "), value(worldserver.activeChunkSet.size()), NEWLINE_TEXT,
                                 key("Entities: "), value(worldserver.loadedEntityList.size()), NEWLINE_TEXT,
@@ -246,6 +267,12 @@ protected Text getChunksInfo(WorldServer worldserver) {
                                 key("Removed Entities:"), value(worldserver.unloadedEntityList.size()), NEWLINE_TEXT,
                                 key("Removed Tile Entities: "), value(worldserver.tileEntitiesToBeRemoved), NEWLINE_TEXT
                         );
+                        if (worldserver.getWorldChunkManager() instanceof CustomWorldChunkManager) {
+                            CacheStats stats = ((CustomWorldChunkManager) worldserver.getWorldChunkManager()).getCacheStats();
+                            info = Texts.of(info, key("Biome cache: "), value(stats.hitCount() + " hits, " + stats.missCount() + " misses, "
+                                    + stats.evictionCount() + " evictions"), NEWLINE_TEXT);
+                        }
+                        return info;
                     }
                 })
                 .build();
@@ -288,6 +315,7 @@ private static CommandSpec getReloadCommand() {
                     @Override
                     protected Text process(SpongeConfig<?> config, CommandSource source, CommandContext args) throws CommandException {
                         config.reload();
+                        SpongeHooks.refreshEffectiveConfigs();
                         return Texts.of("Reloaded configuration");
                     }
                 })
@@ -359,6 +387,67 @@ public CommandResult execute(CommandSource src, CommandContext args) throws Comm
                 .build();
     }
 
+    private static final int PREGEN_DEFAULT_CHUNKS_PER_TICK = 10;
+
+    private static CommandSpec getPregenCommand() {
+        return CommandSpec.builder()
+                .description(Texts.of("Pregenerate a world, stop pregenerating or show the progress"))
+                .permission("sponge.command.pregen")
+                .arguments(seq(world(Texts.of("world"), Sponge.getGame()), optional(firstParsing(literal(Texts.of("stop"), "stop"),
+                        seq(integer(Texts.of("radius")), optional(integer(Texts.of("chunks-per-tick"))))))))
+                .executor(new CommandExecutor() {
+                    @Override
+                    public CommandResult execute(CommandSource src, CommandContext args) throws CommandException {
+                        WorldProperties properties = args.<WorldProperties>getOne("world").get();
+                        Optional<World> world = Sponge.getGame().getServer().getWorld(properties.getUniqueId());
+                        if (!world.isPresent()) {
+                            throw new CommandException(Texts.of("World ", properties.getWorldName(), " is not loaded, cannot work with it"));
+                        }
+                        Optional<WorldPregenerator> running = WorldPregenerator.get((WorldServer) world.get());
+
+                        if (args.hasAny("stop")) {
+                            if (!running.isPresent()) {
+                                throw new CommandException(Texts.of("World ", properties.getWorldName(), " is not being pregenerated"));
+                            }
+                            running.get().stop();
+                            src.sendMessage(Texts.of("Stopped pregenerating ", title(properties.getWorldName()), ", run the command with radius ",
+                                    title(String.valueOf(running.get().getRadius())), " again to resume"));
+                            return CommandResult.success();
+                        }
+
+                        Optional<Integer> radius = args.getOne("radius");
+                        if (radius.isPresent()) {
+                            if (running.isPresent()) {
+                                throw new CommandException(Texts.of("World ", properties.getWorldName(), " is already being pregenerated"));
+                            }
+                            if (radius.get() < 0) {
+                                throw new CommandException(Texts.of("The radius must not be negative"));
+                            }
+                            int chunksPerTick = args.<Integer>getOne("chunks-per-tick").or(PREGEN_DEFAULT_CHUNKS_PER_TICK);
+                            if (chunksPerTick <= 0 || chunksPerTick > WorldPregenerator.MAX_CHUNKS_PER_TICK) {
+                                throw new CommandException(Texts.of("The chunks per tick must be between 1 and ",
+                                        WorldPregenerator.MAX_CHUNKS_PER_TICK));
+                            }
+                            if (((WorldServer) world.get()).disableLevelSaving) {
+                                throw new CommandException(Texts.of("Level saving is disabled in world ", properties.getWorldName()));
+                            }
+                            running = Optional.of(WorldPregenerator.start((WorldServer) world.get(), radius.get(), chunksPerTick));
+                            src.sendMessage(Texts.of("Pregenerating ", title(properties.getWorldName())));
+                        } else if (!running.isPresent()) {
+                            throw new CommandException(Texts.of("World ", properties.getWorldName(), " is not being pregenerated"));
+                        }
+
+                        WorldPregenerator pregenerator = running.get();
+                        long eta = pregenerator.getEstimatedSecondsRemaining();
+                        src.sendMessage(Texts.of("Progress: ", title(pregenerator.getProgress() + "/" + pregenerator.getTotal()), " chunks, ",
+                                title(String.format("%.1f", pregenerator.getChunksPerSecond())), " chunks/s, ETA: ",
+                                title(eta < 0 ? "unknown" : String.format("%d:%02d:%02d", eta / 3600, eta / 60 % 60, eta % 60))));
+                        return CommandResult.success();
+                    }
+                })
+                .build();
+    }
+
     private static class PluginsCommandElement extends PatternMatchingCommandElement {
 
         protected PluginsCommandElement(@Nullable Text key) {
@@ -390,6 +479,166 @@ private static Text title(String title) {
         return Texts.of(TextColors.GREEN, title);
     }
 
+    private static CommandSpec getTimingsCommand() {
+        final ChildCommandElementExecutor children = new ChildCommandElementExecutor(null);
+        children.register(getEventTimingsCommand(), "events");
+        children.register(getTaskTimingsCommand(), "tasks");
+        return CommandSpec.builder()
+                .description(Texts.of("Report timings"))
+                .permission("sponge.command.timings")
+                .arguments(children)
+                .executor(children)
+                .build();
+    }
+
+    private static CommandSpec getEventTimingsCommand() {
+        return CommandSpec.builder()
+                .description(Texts.of("Report the event handlers taking the most time, or turn event timings on or off"))
+                .permission("sponge.command.timings.events")
+                .arguments(optional(choices(Texts.of("action"), ImmutableMap.of("on", "on", "off", "off", "reset", "reset"))))
+                .executor(new CommandExecutor() {
+                    @Override
+                    public CommandResult execute(CommandSource src, CommandContext args) throws CommandException {
+                        SpongeEventManager eventManager = (SpongeEventManager) Sponge.getGame().getEventManager();
+                        Optional<String> action = args.getOne("action");
+                        if (action.isPresent()) {
+                            if (action.get().equals("reset")) {
+                                for (RegisteredHandler<?> handler : eventManager.getRegisteredHandlers()) {
+                                    handler.getTimings().reset();
+                                }
+                                src.sendMessage(Texts.of("Event timings reset"));
+                            } else {
+                                eventManager.setTimingsEnabled(action.get().equals("on"));
+                                src.sendMessage(Texts.of("Event timings ", title(action.get())));
+                            }
+                            return CommandResult.success();
+                        }
+
+                        if (!eventManager.isTimingsEnabled()) {
+                            src.sendMessage(Texts.of(TextColors.RED, "Event timings are disabled, enable them with /sponge timings events on"));
+                        }
+                        src.sendMessage(getEventTimings(eventManager.getRegisteredHandlers()));
+                        src.sendMessage(Texts.of("Event types resolved after warm-up: ", title(String.valueOf(eventManager.getColdBakeCount()))));
+                        return CommandResult.success();
+                    }
+                })
+                .build();
+    }
+
+    private static final int TIMINGS_TOP_HANDLERS = 10;
+
+    private static Text getEventTimings(List<RegisteredHandler<?>> handlers) {
+        Map<PluginContainer, Long> totalByPlugin = Maps.newHashMap();
+        for (RegisteredHandler<?> handler : handlers) {
+            Long total = totalByPlugin.get(handler.getPlugin());
+            totalByPlugin.put(handler.getPlugin(), (total == null ? 0 : total) + handler.getTimings().getTotalNanos());
+        }
+
+        List<Map.Entry<PluginContainer, Long>> plugins = Lists.newArrayList(totalByPlugin.entrySet());
+        Collections.sort(plugins, new Comparator<Map.Entry<PluginContainer, Long>>() {
+
+            @Override
+            public int compare(Map.Entry<PluginContainer, Long> o1, Map.Entry<PluginContainer, Long> o2) {
+                return Longs.compare(o2.getValue(), o1.getValue());
+            }
+        });
+
+        List<RegisteredHandler<?>> sorted = Lists.newArrayList(handlers);
+        Collections.sort(sorted, new Comparator<RegisteredHandler<?>>() {
+
+            @Override
+            public int compare(RegisteredHandler<?> o1, RegisteredHandler<?> o2) {
+                return Longs.compare(o2.getTimings().getTotalNanos(), o1.getTimings().getTotalNanos());
+            }
+        });
+
+        TextBuilder builder = Texts.builder().append(title("Event time by plugin:"));
+        for (Map.Entry<PluginContainer, Long> entry : plugins) {
+            builder.append(NEWLINE_TEXT, Texts.of(INDENT, entry.getKey().getName(), ": ", formatNanos(entry.getValue())));
+        }
+
+        builder.append(NEWLINE_TEXT, title("Top event handlers:"));
+        for (RegisteredHandler<?> handler : sorted.subList(0, Math.min(TIMINGS_TOP_HANDLERS, sorted.size()))) {
+            HandlerTimings timings = handler.getTimings();
+            long count = timings.getCount();
+            builder.append(NEWLINE_TEXT, Texts.of(INDENT, TextColors.GOLD, handler.getPlugin().getName(), " ",
+                    handler.getEventClass().getSimpleName(), " -> ", handler.getHandle().getClass().getName()),
+                    NEWLINE_TEXT, Texts.of(LONG_INDENT, "count: ", count,
+                            ", total: ", formatNanos(timings.getTotalNanos()),
+                            ", avg: ", formatNanos(count == 0 ? 0 : timings.getTotalNanos() / count),
+                            ", p95: ", formatNanos(timings.getPercentileNanos(0.95)),
+                            ", max: ", formatNanos(timings.getMaxNanos())));
+        }
+        return builder.build();
+    }
+
+    private static CommandSpec getTaskTimingsCommand() {
+        return CommandSpec.builder()
+                .description(Texts.of("Report the time taken and lag of scheduled tasks by plugin"))
+                .permission("sponge.command.timings.tasks")
+                .arguments(optional(choices(Texts.of("action"), ImmutableMap.of("reset", "reset"))))
+                .executor(new CommandExecutor() {
+                    @Override
+                    public CommandResult execute(CommandSource src, CommandContext args) throws CommandException {
+                        SpongeScheduler scheduler = SpongeScheduler.getInstance();
+                        if (args.hasAny("action")) {
+                            for (TaskMetrics metrics : Iterables.concat(scheduler.getTaskMetrics(false).values(),
+                                    scheduler.getTaskMetrics(true).values())) {
+                                metrics.reset();
+                            }
+                            scheduler.resetSyncTaskLateness();
+                            src.sendMessage(Texts.of("Task timings reset"));
+                            return CommandResult.success();
+                        }
+
+                        Map<PluginContainer, SyncScheduler.Lateness> lateness = scheduler.getSyncTaskLateness();
+                        src.sendMessage(getTaskTimings("Synchronous tasks by plugin:", scheduler.getTaskMetrics(false).values(), lateness));
+                        src.sendMessage(getTaskTimings("Asynchronous tasks by plugin:", scheduler.getTaskMetrics(true).values(), lateness));
+                        return CommandResult.success();
+                    }
+                })
+                .build();
+    }
+
+    private static Text getTaskTimings(String title, Collection<TaskMetrics> metrics, Map<PluginContainer, SyncScheduler.Lateness> lateness) {
+        List<TaskMetrics> sorted = Lists.newArrayList(metrics);
+        Collections.sort(sorted, new Comparator<TaskMetrics>() {
+
+            @Override
+            public int compare(TaskMetrics o1, TaskMetrics o2) {
+                return Longs.compare(o2.getTotalRunNanos(), o1.getTotalRunNanos());
+            }
+        });
+
+        TextBuilder builder = Texts.builder().append(title(title));
+        for (TaskMetrics plugin : sorted) {
+            long count = plugin.getTasksRun();
+            builder.append(NEWLINE_TEXT, Texts.of(INDENT, TextColors.GOLD, plugin.getPluginContainer().getName()),
+                    NEWLINE_TEXT, Texts.of(LONG_INDENT, "runs: ", count,
+                            ", failures: ", plugin.getFailures(),
+                            ", queued: ", plugin.getQueueDepth(),
+                            ", total: ", formatNanos(plugin.getTotalRunNanos()),
+                            ", avg: ", formatNanos(count == 0 ? 0 : plugin.getTotalRunNanos() / count),
+                            ", max: ", formatNanos(plugin.getMaxRunNanos())),
+                    NEWLINE_TEXT, Texts.of(LONG_INDENT, "lag avg: ", formatNanos(count == 0 ? 0 : plugin.getTotalLagNanos() / count),
+                            ", lag max: ", formatNanos(plugin.getMaxLagNanos())));
+            SyncScheduler.Lateness late = plugin.isAsynchronous() ? null : lateness.get(plugin.getPluginContainer());
+            if (late != null) {
+                builder.append(Texts.of(String.format(", ticks late avg: %.2f", late.getAverageTicks()),
+                        ", ticks late max: ", late.getMaxTicks(),
+                        ", deferred: ", late.getDeferredTasks()));
+            }
+        }
+        return builder.build();
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos >= 1000000) {
+            return String.format("%.2fms", nanos / 1000000.0);
+        }
+        return String.format("%.1f\u00b5s", nanos / 1000.0);
+    }
+
     private static CommandSpec getPluginsCommand() {
         return CommandSpec.builder()
                 .description(Texts.of("List currently installed plugins"))
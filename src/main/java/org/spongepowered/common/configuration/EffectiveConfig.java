@@ -0,0 +1,177 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.configuration;
+
+/**
+ * An immutable snapshot of the settings of a {@link SpongeConfig} which are
+ * read on hot paths, resolved for a single world.
+ *
+ * <p>The settings come from whichever of the world, dimension and global
+ * configs is active for the world, except for global-only settings, which
+ * always come from the global config. A new snapshot has to be created
+ * whenever one of these configs is reloaded.</p>
+ */
+public final class EffectiveConfig {
+
+    private final SpongeConfig<?> config;
+    private final String configName;
+
+    private final boolean chunkLoadLogging;
+    private final boolean chunkUnloadLogging;
+    private final boolean entitySpawnLogging;
+    private final boolean entityDespawnLogging;
+    private final boolean entityDeathLogging;
+    private final boolean logWithStackTraces;
+    private final boolean logEntityCollisionChecks;
+    private final boolean logEntitySpeedRemoval;
+
+    private final int maxBoundingBoxSize;
+    private final int maxSpeed;
+    private final int maxCollisionSize;
+
+    private final boolean entityActivationRangeEnabled;
+    private final int creatureActivationRange;
+    private final int monsterActivationRange;
+    private final int aquaticActivationRange;
+    private final int ambientActivationRange;
+    private final int miscActivationRange;
+    private final int maxActivationRange;
+
+    public EffectiveConfig(SpongeConfig<?> config, SpongeConfig<SpongeConfig.GlobalConfig> globalConfig) {
+        this.config = config;
+        this.configName = config.getConfigName();
+
+        SpongeConfig.LoggingCategory logging = config.getConfig().getLogging();
+        this.chunkLoadLogging = logging.chunkLoadLogging();
+        this.chunkUnloadLogging = logging.chunkUnloadLogging();
+        this.entitySpawnLogging = logging.entitySpawnLogging();
+        this.entityDespawnLogging = logging.entityDespawnLogging();
+        this.entityDeathLogging = logging.entityDeathLogging();
+        this.logWithStackTraces = logging.logWithStackTraces();
+        this.logEntityCollisionChecks = logging.logEntityCollisionChecks();
+        this.logEntitySpeedRemoval = logging.logEntitySpeedRemoval();
+
+        SpongeConfig.EntityCategory entity = config.getConfig().getEntity();
+        this.maxBoundingBoxSize = entity.getMaxBoundingBoxSize();
+        this.maxSpeed = entity.getMaxSpeed();
+        this.maxCollisionSize = entity.getMaxCollisionSize();
+
+        SpongeConfig.EntityActivationRangeCategory activationRange = config.getConfig().getEntityActivationRange();
+        this.entityActivationRangeEnabled = globalConfig.getConfig().getModules().usePluginEntityActivation();
+        this.creatureActivationRange = activationRange.getCreatureActivationRange();
+        this.monsterActivationRange = activationRange.getMonsterActivationRange();
+        this.aquaticActivationRange = activationRange.getAquaticActivationRange();
+        this.ambientActivationRange = activationRange.getAmbientActivationRange();
+        this.miscActivationRange = activationRange.getMiscActivationRange();
+        this.maxActivationRange = Math.max(Math.max(this.creatureActivationRange, this.monsterActivationRange),
+                Math.max(Math.max(this.aquaticActivationRange, this.ambientActivationRange), this.miscActivationRange));
+    }
+
+    /**
+     * Gets the config these settings were resolved from.
+     *
+     * @return The active config
+     */
+    public SpongeConfig<?> getConfig() {
+        return this.config;
+    }
+
+    public String getConfigName() {
+        return this.configName;
+    }
+
+    public boolean chunkLoadLogging() {
+        return this.chunkLoadLogging;
+    }
+
+    public boolean chunkUnloadLogging() {
+        return this.chunkUnloadLogging;
+    }
+
+    public boolean entitySpawnLogging() {
+        return this.entitySpawnLogging;
+    }
+
+    public boolean entityDespawnLogging() {
+        return this.entityDespawnLogging;
+    }
+
+    public boolean entityDeathLogging() {
+        return this.entityDeathLogging;
+    }
+
+    public boolean logWithStackTraces() {
+        return this.logWithStackTraces;
+    }
+
+    public boolean logEntityCollisionChecks() {
+        return this.logEntityCollisionChecks;
+    }
+
+    public boolean logEntitySpeedRemoval() {
+        return this.logEntitySpeedRemoval;
+    }
+
+    public int getMaxBoundingBoxSize() {
+        return this.maxBoundingBoxSize;
+    }
+
+    public int getMaxSpeed() {
+        return this.maxSpeed;
+    }
+
+    public int getMaxCollisionSize() {
+        return this.maxCollisionSize;
+    }
+
+    public boolean isEntityActivationRangeEnabled() {
+        return this.entityActivationRangeEnabled;
+    }
+
+    public int getCreatureActivationRange() {
+        return this.creatureActivationRange;
+    }
+
+    public int getMonsterActivationRange() {
+        return this.monsterActivationRange;
+    }
+
+    public int getAquaticActivationRange() {
+        return this.aquaticActivationRange;
+    }
+
+    public int getAmbientActivationRange() {
+        return this.ambientActivationRange;
+    }
+
+    public int getMiscActivationRange() {
+        return this.miscActivationRange;
+    }
+
+    public int getMaxActivationRange() {
+        return this.maxActivationRange;
+    }
+
+}
@@ -76,6 +76,10 @@ public enum Type {
     public static final String ENTITY_ACTIVATION_RANGE_MISC = "misc-activation-range";
     public static final String ENTITY_HUMAN_PLAYER_LIST_REMOVE_DELAY = "human-player-list-remove-delay";
 
+    // EVENTS
+    public static final String EVENTS_ASYNC_THREADS = "async-threads";
+    public static final String EVENTS_ASYNC_QUEUE_SIZE = "async-queue-size";
+
     // GENERAL
     public static final String GENERAL_DISABLE_WARNINGS = "disable-warnings";
     public static final String GENERAL_CHUNK_LOAD_OVERRIDE = "chunk-load-override";
@@ -93,6 +97,18 @@ public enum Type {
     // MODULES
     public static final String MODULE_ENTITY_ACTIVATION_RANGE = "entity-activation-range";
 
+    // OPTIMIZATIONS
+    public static final String OPTIMIZATION_EVENT_DISPATCHER_CLASSES = "event-dispatcher-classes";
+    public static final String OPTIMIZATION_CHUNK_GENERATION_THREADS = "chunk-generation-threads";
+    public static final String OPTIMIZATION_CHUNK_IO_THREADS = "chunk-io-threads";
+    public static final String OPTIMIZATION_CHUNK_GENERATION_ASYNC_BIOMES = "chunk-generation-async-biomes";
+
+    // SCHEDULER
+    public static final String SCHEDULER_ASYNC_THREADS = "async-threads";
+    public static final String SCHEDULER_TICK_BUDGET = "tick-budget";
+    public static final String SCHEDULER_PLUGIN_TICK_BUDGETS = "plugin-tick-budgets";
+    public static final String SCHEDULER_MAIN_THREAD_BATCH_SIZE = "main-thread-batch-size";
+
     // WORLD
     public static final String WORLD_INFINITE_WATER_SOURCE = "infinite-water-source";
     public static final String WORLD_FLOWING_LAVA_DECAY = "flowing-lava-decay";
@@ -210,6 +226,15 @@ public static class GlobalConfig extends ConfigBase {
         @Setting(value = "modules")
         private ModuleCategory mixins = new ModuleCategory();
 
+        @Setting
+        private OptimizationCategory optimizations = new OptimizationCategory();
+
+        @Setting
+        private EventsCategory events = new EventsCategory();
+
+        @Setting
+        private SchedulerCategory scheduler = new SchedulerCategory();
+
         public SqlCategory getSql() {
             return this.sql;
         }
@@ -221,6 +246,18 @@ public CommandsCategory getCommands() {
         public ModuleCategory getModules() {
             return this.mixins;
         }
+
+        public OptimizationCategory getOptimizations() {
+            return this.optimizations;
+        }
+
+        public EventsCategory getEvents() {
+            return this.events;
+        }
+
+        public SchedulerCategory getScheduler() {
+            return this.scheduler;
+        }
     }
 
     public static class DimensionConfig extends ConfigBase {
@@ -357,6 +394,32 @@ public void setDumpThreadsOnWarn(boolean dumpThreadsOnWarn) {
         }
     }
 
+    @ConfigSerializable
+    public static class EventsCategory extends Category {
+
+        @Setting(value = EVENTS_ASYNC_THREADS, comment = "Number of threads calling asynchronous event handlers")
+        private int asyncThreads = 2;
+        @Setting(value = EVENTS_ASYNC_QUEUE_SIZE,
+                comment = "Number of asynchronous event deliveries that may be queued before further events are dropped")
+        private int asyncQueueSize = 4096;
+
+        public int getAsyncThreads() {
+            return this.asyncThreads;
+        }
+
+        public void setAsyncThreads(int asyncThreads) {
+            this.asyncThreads = Math.max(1, asyncThreads);
+        }
+
+        public int getAsyncQueueSize() {
+            return this.asyncQueueSize;
+        }
+
+        public void setAsyncQueueSize(int asyncQueueSize) {
+            this.asyncQueueSize = Math.max(1, asyncQueueSize);
+        }
+    }
+
     @ConfigSerializable
     public static class GeneralCategory extends Category {
 
@@ -606,6 +669,103 @@ public void setPluginEntityActivation(boolean pluginEntityActivation) {
         }
     }
 
+    @ConfigSerializable
+    public static class OptimizationCategory extends Category {
+
+        @Setting(value = OPTIMIZATION_EVENT_DISPATCHER_CLASSES,
+                comment = "Generate a class for frequently posted event types that calls all of their handlers directly,\n"
+                        + "allowing the JIT to inline hot handlers. Requires a restart")
+        private boolean eventDispatcherClasses = false;
+        @Setting(value = OPTIMIZATION_CHUNK_GENERATION_THREADS,
+                comment = "Number of threads generating terrain for worlds with custom generators ahead of the main thread.\n"
+                        + "Generator populators of such worlds must be thread safe, biomes are still generated on the main thread\n"
+                        + "unless chunk-generation-async-biomes is enabled. 0 to generate on the main thread. Requires a restart")
+        private int chunkGenerationThreads = 0;
+        @Setting(value = OPTIMIZATION_CHUNK_GENERATION_ASYNC_BIOMES,
+                comment = "Also generate the biomes of custom generators on the chunk generation threads. Only enable this if\n"
+                        + "all custom biome generators are thread safe, biome generators wrapping vanilla ones are not")
+        private boolean chunkGenerationAsyncBiomes = false;
+        @Setting(value = OPTIMIZATION_CHUNK_IO_THREADS,
+                comment = "Number of threads reading chunks from disk for asynchronous chunk loads. Requires a restart")
+        private int chunkIoThreads = 2;
+
+        public boolean useEventDispatcherClasses() {
+            return this.eventDispatcherClasses;
+        }
+
+        public void setEventDispatcherClasses(boolean eventDispatcherClasses) {
+            this.eventDispatcherClasses = eventDispatcherClasses;
+        }
+
+        public int getChunkGenerationThreads() {
+            return this.chunkGenerationThreads;
+        }
+
+        public void setChunkGenerationThreads(int chunkGenerationThreads) {
+            this.chunkGenerationThreads = Math.max(0, chunkGenerationThreads);
+        }
+
+        public boolean useChunkGenerationAsyncBiomes() {
+            return this.chunkGenerationAsyncBiomes;
+        }
+
+        public void setChunkGenerationAsyncBiomes(boolean chunkGenerationAsyncBiomes) {
+            this.chunkGenerationAsyncBiomes = chunkGenerationAsyncBiomes;
+        }
+
+        public int getChunkIoThreads() {
+            return this.chunkIoThreads;
+        }
+
+        public void setChunkIoThreads(int chunkIoThreads) {
+            this.chunkIoThreads = Math.max(1, chunkIoThreads);
+        }
+    }
+
+    @ConfigSerializable
+    public static class SchedulerCategory extends Category {
+
+        @Setting(value = SCHEDULER_ASYNC_THREADS, comment = "Maximum number of threads running asynchronous tasks")
+        private int asyncThreads = 8;
+        @Setting(value = SCHEDULER_TICK_BUDGET, comment = "Milliseconds per tick that synchronous tasks may run for before the remaining\n"
+                + "due tasks are deferred to the next tick, shared fairly between plugins. 0 to disable")
+        private int tickBudget = 0;
+        @Setting(value = SCHEDULER_PLUGIN_TICK_BUDGETS,
+                comment = "A mapping from plugin id to the milliseconds per tick that plugin's synchronous tasks may run for")
+        private Map<String, Integer> pluginTickBudgets = new HashMap<String, Integer>();
+        @Setting(value = SCHEDULER_MAIN_THREAD_BATCH_SIZE,
+                comment = "Maximum number of work items handed to the main thread by plugins that run per tick")
+        private int mainThreadBatchSize = 1000;
+
+        public int getAsyncThreads() {
+            return this.asyncThreads;
+        }
+
+        public void setAsyncThreads(int asyncThreads) {
+            this.asyncThreads = Math.max(1, asyncThreads);
+        }
+
+        public int getTickBudget() {
+            return this.tickBudget;
+        }
+
+        public void setTickBudget(int tickBudget) {
+            this.tickBudget = Math.max(0, tickBudget);
+        }
+
+        public Map<String, Integer> getPluginTickBudgets() {
+            return this.pluginTickBudgets;
+        }
+
+        public int getMainThreadBatchSize() {
+            return this.mainThreadBatchSize;
+        }
+
+        public void setMainThreadBatchSize(int mainThreadBatchSize) {
+            this.mainThreadBatchSize = Math.max(1, mainThreadBatchSize);
+        }
+    }
+
     @ConfigSerializable
     public static class WorldCategory extends Category {
 
@@ -0,0 +1,249 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.entity;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityCreature;
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.IProjectile;
+import net.minecraft.entity.boss.EntityDragon;
+import net.minecraft.entity.boss.EntityWither;
+import net.minecraft.entity.effect.EntityWeatherEffect;
+import net.minecraft.entity.item.EntityEnderCrystal;
+import net.minecraft.entity.item.EntityFallingBlock;
+import net.minecraft.entity.item.EntityFireworkRocket;
+import net.minecraft.entity.item.EntityTNTPrimed;
+import net.minecraft.entity.monster.IMob;
+import net.minecraft.entity.passive.EntityAmbientCreature;
+import net.minecraft.entity.passive.EntityAnimal;
+import net.minecraft.entity.passive.EntityWaterMob;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.projectile.EntityFireball;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.MathHelper;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import org.spongepowered.common.configuration.EffectiveConfig;
+import org.spongepowered.common.interfaces.IMixinEntity;
+import org.spongepowered.common.util.SpongeHooks;
+
+/**
+ * Skips the full update of entities which are out of the configured
+ * activation range of every player in their world.
+ *
+ * <p>Once per tick, all entities within range of a player are marked as
+ * activated. Entities which were not activated only run their
+ * {@link IMixinEntity#inactiveTick()}, apart from one full tick every
+ * second. Entities that were recently damaged, are riding or being ridden,
+ * or have a target stay active for another second when they get that full
+ * tick.</p>
+ */
+public final class EntityActivationRange {
+
+    public static final byte ACTIVATION_TYPE_MISC = 0;
+    public static final byte ACTIVATION_TYPE_MONSTER = 1;
+    public static final byte ACTIVATION_TYPE_CREATURE = 2;
+    public static final byte ACTIVATION_TYPE_AQUATIC = 3;
+    public static final byte ACTIVATION_TYPE_AMBIENT = 4;
+
+    /**
+     * The activated tick of entities which have never been activated.
+     */
+    public static final long NEVER_ACTIVATED = Integer.MIN_VALUE;
+
+    // Inactive entities get a full tick once in this many ticks
+    private static final int WAKE_UP_INTERVAL = 20;
+
+    /**
+     * Gets the type of activation range that applies to an entity.
+     *
+     * @param entity The entity
+     * @return The activation type
+     */
+    public static byte initializeEntityActivationType(Entity entity) {
+        if (entity instanceof IMob) {
+            return ACTIVATION_TYPE_MONSTER;
+        } else if (entity instanceof EntityWaterMob) {
+            return ACTIVATION_TYPE_AQUATIC;
+        } else if (entity instanceof EntityAmbientCreature) {
+            return ACTIVATION_TYPE_AMBIENT;
+        } else if (entity instanceof EntityCreature) {
+            return ACTIVATION_TYPE_CREATURE;
+        }
+        return ACTIVATION_TYPE_MISC;
+    }
+
+    /**
+     * Gets whether an entity is always active, regardless of its distance to
+     * players.
+     *
+     * @param entity The entity
+     * @return True if the entity is always active
+     */
+    public static boolean initializeEntityActivationState(Entity entity) {
+        return entity instanceof EntityPlayer
+                || entity instanceof IProjectile
+                || entity instanceof EntityFireball
+                || entity instanceof EntityDragon
+                || entity instanceof EntityWither
+                || entity instanceof EntityWeatherEffect
+                || entity instanceof EntityTNTPrimed
+                || entity instanceof EntityFallingBlock
+                || entity instanceof EntityEnderCrystal
+                || entity instanceof EntityFireworkRocket;
+    }
+
+    private static int getActivationRange(EffectiveConfig config, byte activationType) {
+        switch (activationType) {
+            case ACTIVATION_TYPE_MONSTER:
+                return config.getMonsterActivationRange();
+            case ACTIVATION_TYPE_CREATURE:
+                return config.getCreatureActivationRange();
+            case ACTIVATION_TYPE_AQUATIC:
+                return config.getAquaticActivationRange();
+            case ACTIVATION_TYPE_AMBIENT:
+                return config.getAmbientActivationRange();
+            default:
+                return config.getMiscActivationRange();
+        }
+    }
+
+    /**
+     * Marks all entities within the activation range of a player in the
+     * world as activated for the current tick.
+     *
+     * @param world The world to activate the entities of
+     */
+    public static void activateEntities(World world) {
+        if (world.isRemote) {
+            return;
+        }
+        EffectiveConfig config = SpongeHooks.getEffectiveConfig(world);
+        int maxRange = config.getMaxActivationRange();
+        if (!config.isEntityActivationRangeEnabled() || maxRange <= 0) {
+            return;
+        }
+
+        long currentTick = MinecraftServer.getServer().getTickCounter();
+        for (Object player : world.playerEntities) {
+            Entity entity = (Entity) player;
+            ((IMixinEntity) entity).setActivatedTick(currentTick);
+
+            int minChunkX = MathHelper.floor_double(entity.posX - maxRange) >> 4;
+            int maxChunkX = MathHelper.floor_double(entity.posX + maxRange) >> 4;
+            int minChunkZ = MathHelper.floor_double(entity.posZ - maxRange) >> 4;
+            int maxChunkZ = MathHelper.floor_double(entity.posZ + maxRange) >> 4;
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                    if (world.getChunkProvider().chunkExists(chunkX, chunkZ)) {
+                        activateChunkEntities(entity, world.getChunkFromChunkCoords(chunkX, chunkZ), config, currentTick);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void activateChunkEntities(Entity player, Chunk chunk, EffectiveConfig config, long currentTick) {
+        for (ClassInheritanceMultiMap section : chunk.getEntityLists()) {
+            for (Object object : section) {
+                Entity entity = (Entity) object;
+                IMixinEntity spongeEntity = (IMixinEntity) entity;
+                if (spongeEntity.getActivatedTick() >= currentTick || spongeEntity.getDefaultActivationState()) {
+                    continue;
+                }
+                int range = getActivationRange(config, spongeEntity.getActivationType());
+                if (Math.abs(entity.posX - player.posX) <= range && Math.abs(entity.posZ - player.posZ) <= range) {
+                    spongeEntity.setActivatedTick(currentTick);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets whether an entity is exempt from inactivity despite being out of
+     * range of every player.
+     *
+     * @param entity The entity
+     * @return True if the entity should be kept active
+     */
+    public static boolean checkEntityImmunities(Entity entity) {
+        if (entity.ridingEntity != null || entity.riddenByEntity != null) {
+            return true;
+        }
+        if (entity instanceof EntityLivingBase) {
+            EntityLivingBase living = (EntityLivingBase) entity;
+            if (living.hurtTime > 0 || living.getAITarget() != null) {
+                return true;
+            }
+            if (entity instanceof EntityLiving && ((EntityLiving) entity).getAttackTarget() != null) {
+                return true;
+            }
+            if (entity instanceof EntityAnimal && ((EntityAnimal) entity).isInLove()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets whether an entity should run its full update this tick.
+     *
+     * @param entity The entity
+     * @return True if the entity should be updated, false if it should only
+     *     run its inactive tick
+     */
+    public static boolean checkIfActive(Entity entity) {
+        if (entity.worldObj.isRemote || !entity.addedToChunk) {
+            return true;
+        }
+        IMixinEntity spongeEntity = (IMixinEntity) entity;
+        if (spongeEntity.getDefaultActivationState()) {
+            return true;
+        }
+        long currentTick = MinecraftServer.getServer().getTickCounter();
+        if (spongeEntity.getActivatedTick() >= currentTick) {
+            return true;
+        }
+        EffectiveConfig config = SpongeHooks.getEffectiveConfig(entity.worldObj);
+        if (!config.isEntityActivationRangeEnabled() || getActivationRange(config, spongeEntity.getActivationType()) <= 0) {
+            return true;
+        }
+
+        if ((currentTick - spongeEntity.getActivatedTick() - 1) % WAKE_UP_INTERVAL == 0) {
+            if (checkEntityImmunities(entity)) {
+                // Keep the entity active until it is checked again
+                spongeEntity.setActivatedTick(currentTick + WAKE_UP_INTERVAL);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private EntityActivationRange() {
+    }
+
+}
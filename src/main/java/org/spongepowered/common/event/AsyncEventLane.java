@@ -0,0 +1,224 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.common.Sponge;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+/**
+ * Calls {@link Async} handlers on a bounded pool of worker threads. Events
+ * posted with the same ordering key are delivered one after another in the
+ * order they were posted, events without a key are delivered as soon as a
+ * worker is available.
+ *
+ * <p>Handlers are never called on the posting thread. If the queue of the
+ * workers is full, the event is dropped for the asynchronous handlers and
+ * its future fails with a {@link RejectedExecutionException}.</p>
+ */
+final class AsyncEventLane {
+
+    private final SpongeEventManager eventManager;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentMap<Object, KeyedQueue> queues = Maps.newConcurrentMap();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    AsyncEventLane(SpongeEventManager eventManager, int threads, int queueSize) {
+        this.eventManager = eventManager;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(queueSize),
+                new ThreadFactoryBuilder().setNameFormat("Sponge-AsyncEvent-%d").setDaemon(true).build());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    ListenableFuture<Boolean> post(Event event, List<RegisteredHandler<?>> handlers, @Nullable Object key) {
+        Delivery delivery = new Delivery(event, handlers);
+        if (key == null) {
+            try {
+                this.executor.execute(delivery);
+            } catch (RejectedExecutionException e) {
+                delivery.reject(e);
+            }
+        } else {
+            getQueue(key).add(delivery);
+        }
+        return delivery.future;
+    }
+
+    /**
+     * Gets the number of events that were dropped because the queue of the
+     * workers was full.
+     *
+     * @return The number of dropped events
+     */
+    long getDroppedCount() {
+        return this.droppedCount.get();
+    }
+
+    private KeyedQueue getQueue(Object key) {
+        KeyedQueue queue = this.queues.get(key);
+        if (queue == null) {
+            queue = new KeyedQueue(key);
+            KeyedQueue existing = this.queues.putIfAbsent(key, queue);
+            if (existing != null) {
+                queue = existing;
+            }
+        }
+        return queue;
+    }
+
+    private final class Delivery implements Runnable {
+
+        private final Event event;
+        private final List<RegisteredHandler<?>> handlers;
+        final SettableFuture<Boolean> future = SettableFuture.create();
+
+        Delivery(Event event, List<RegisteredHandler<?>> handlers) {
+            this.event = event;
+            this.handlers = handlers;
+        }
+
+        @Override
+        public void run() {
+            try {
+                this.future.set(AsyncEventLane.this.eventManager.postHandlers(this.event, this.handlers));
+            } catch (Throwable e) {
+                this.future.setException(e);
+            }
+        }
+
+        void reject(RejectedExecutionException e) {
+            long dropped = AsyncEventLane.this.droppedCount.incrementAndGet();
+            // Don't flood the log while the workers are overloaded
+            if (dropped == 1 || dropped % 1000 == 0) {
+                Sponge.getLogger().warn("The asynchronous event queue is full, dropped {} events so far, latest was {}", dropped,
+                        this.event.getClass().getName());
+            }
+            this.future.setException(e);
+        }
+
+    }
+
+    /**
+     * Runs the deliveries for a single ordering key one at a time. The queue
+     * removes itself once drained, deliveries added to a removed queue are
+     * handed to its replacement.
+     */
+    private final class KeyedQueue implements Runnable {
+
+        private final Object key;
+        private final Queue<Delivery> tasks = new ArrayDeque<Delivery>();
+        private boolean scheduled;
+        private boolean removed;
+
+        KeyedQueue(Object key) {
+            this.key = key;
+        }
+
+        void add(Delivery task) {
+            boolean removed;
+            boolean schedule = false;
+            synchronized (this) {
+                removed = this.removed;
+                if (!removed) {
+                    this.tasks.add(task);
+                    if (!this.scheduled) {
+                        this.scheduled = schedule = true;
+                    }
+                }
+            }
+
+            if (removed) {
+                getQueue(this.key).add(task);
+            } else if (schedule) {
+                try {
+                    AsyncEventLane.this.executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    rejectAll(e);
+                }
+            }
+        }
+
+        private void rejectAll(RejectedExecutionException e) {
+            List<Delivery> rejected;
+            synchronized (this) {
+                rejected = Lists.newArrayList(this.tasks);
+                this.tasks.clear();
+                this.scheduled = false;
+                this.removed = true;
+                AsyncEventLane.this.queues.remove(this.key, this);
+            }
+            for (Delivery delivery : rejected) {
+                delivery.reject(e);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Delivery task;
+                synchronized (this) {
+                    task = this.tasks.poll();
+                }
+
+                task.run();
+
+                synchronized (this) {
+                    if (this.tasks.isEmpty()) {
+                        this.scheduled = false;
+                        this.removed = true;
+                        AsyncEventLane.this.queues.remove(this.key, this);
+                        return;
+                    }
+                }
+
+                // Give other keys a chance before continuing with this one, unless the work queue is full
+                try {
+                    AsyncEventLane.this.executor.execute(this);
+                    return;
+                } catch (RejectedExecutionException ignored) {
+                    // Keep draining on this worker
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,235 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.objectweb.asm.Opcodes.AALOAD;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.GOTO;
+import static org.objectweb.asm.Opcodes.IFNE;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V1_6;
+
+import com.google.common.collect.Maps;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import org.spongepowered.api.event.Cancellable;
+import org.spongepowered.api.event.Event;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates an {@link EventDispatcher} class for a baked event type that
+ * invokes the listener methods of all handlers directly, in order, with the
+ * {@code ignoreCancelled} checks compiled in. Handlers that weren't
+ * registered through an accessible listener method are called through their
+ * {@link RegisteredHandler}.
+ *
+ * <p>Every dispatcher is defined in its own class loader, so it can be
+ * collected as soon as it is replaced after the handlers have changed.</p>
+ */
+public final class ClassEventDispatcherFactory implements EventDispatcher.Factory {
+
+    private final AtomicInteger id = new AtomicInteger();
+    private final String targetPackage;
+
+    public ClassEventDispatcherFactory(String targetPackage) {
+        checkNotNull(targetPackage, "targetPackage");
+        checkArgument(!targetPackage.isEmpty(), "targetPackage cannot be empty");
+        this.targetPackage = targetPackage + '.';
+    }
+
+    @Override
+    public EventDispatcher create(Class<? extends Event> eventClass, List<RegisteredHandler<?>> handlers) throws Exception {
+        RegisteredHandler<?>[] handlerArray = handlers.toArray(new RegisteredHandler<?>[handlers.size()]);
+        Method[] methods = new Method[handlerArray.length];
+        Object[] targets = new Object[handlerArray.length];
+        LocalClassLoader classLoader = new LocalClassLoader(getClass().getClassLoader());
+
+        for (int i = 0; i < handlerArray.length; i++) {
+            Method method = handlerArray[i].getMethod();
+            if (method != null && isAccessible(method)) {
+                methods[i] = method;
+                targets[i] = handlerArray[i].getHandle();
+                classLoader.addClass(method.getDeclaringClass());
+                classLoader.addClass(method.getParameterTypes()[0]);
+            } else {
+                targets[i] = handlerArray[i];
+            }
+        }
+
+        String name = this.targetPackage + eventClass.getSimpleName() + "Dispatcher_" + this.id.incrementAndGet();
+        Class<? extends EventDispatcher> dispatcherClass = classLoader.defineClass(name,
+                generateClass(name, Cancellable.class.isAssignableFrom(eventClass), handlerArray, methods));
+        return dispatcherClass.getConstructor(RegisteredHandler[].class, Object[].class).newInstance(handlerArray, targets);
+    }
+
+    private static boolean isAccessible(Method method) {
+        return Modifier.isPublic(method.getDeclaringClass().getModifiers())
+                && Modifier.isPublic(method.getParameterTypes()[0].getModifiers());
+    }
+
+    private static final String BASE_DISPATCHER = Type.getInternalName(EventDispatcher.class);
+    private static final String REGISTERED_HANDLER = Type.getInternalName(RegisteredHandler.class);
+    private static final String CANCELLABLE = Type.getInternalName(Cancellable.class);
+    private static final String EVENT_DESCRIPTOR = Type.getDescriptor(Event.class);
+    private static final String CONSTRUCTOR_DESCRIPTOR = "([L" + REGISTERED_HANDLER + ";[Ljava/lang/Object;)V";
+    private static final String DISPATCH_METHOD_DESCRIPTOR = '(' + EVENT_DESCRIPTOR + ")V";
+    private static final String HANDLE_EXCEPTION_DESCRIPTOR = '(' + EVENT_DESCRIPTOR + "ILjava/lang/Throwable;)V";
+
+    private static byte[] generateClass(String name, boolean cancellable, RegisteredHandler<?>[] handlers, Method[] methods) {
+        name = name.replace('.', '/');
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        MethodVisitor mv;
+
+        cw.visit(V1_6, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, name, null, BASE_DISPATCHER, null);
+
+        String[] fieldTypes = new String[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            fieldTypes[i] = methods[i] != null ? Type.getInternalName(methods[i].getDeclaringClass()) : REGISTERED_HANDLER;
+            cw.visitField(ACC_PRIVATE + ACC_FINAL, "handler" + i, "L" + fieldTypes[i] + ';', null, null).visitEnd();
+        }
+
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "<init>", CONSTRUCTOR_DESCRIPTOR, null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKESPECIAL, BASE_DISPATCHER, "<init>", "([L" + REGISTERED_HANDLER + ";)V", false);
+            for (int i = 0; i < handlers.length; i++) {
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitLdcInsn(i);
+                mv.visitInsn(AALOAD);
+                mv.visitTypeInsn(CHECKCAST, fieldTypes[i]);
+                mv.visitFieldInsn(PUTFIELD, name, "handler" + i, "L" + fieldTypes[i] + ';');
+            }
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "dispatch", DISPATCH_METHOD_DESCRIPTOR, null, null);
+            mv.visitCode();
+            for (int i = 0; i < handlers.length; i++) {
+                Label start = new Label();
+                Label end = new Label();
+                Label handler = new Label();
+                Label next = new Label();
+                mv.visitTryCatchBlock(start, end, handler, "java/lang/Throwable");
+
+                if (cancellable && handlers[i].isIgnoreCancelled()) {
+                    mv.visitVarInsn(ALOAD, 1);
+                    mv.visitTypeInsn(CHECKCAST, CANCELLABLE);
+                    mv.visitMethodInsn(INVOKEINTERFACE, CANCELLABLE, "isCancelled", "()Z", true);
+                    mv.visitJumpInsn(IFNE, next);
+                }
+
+                mv.visitLabel(start);
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitFieldInsn(GETFIELD, name, "handler" + i, "L" + fieldTypes[i] + ';');
+                mv.visitVarInsn(ALOAD, 1);
+                if (methods[i] != null) {
+                    String eventName = Type.getInternalName(methods[i].getParameterTypes()[0]);
+                    mv.visitTypeInsn(CHECKCAST, eventName);
+                    mv.visitMethodInsn(INVOKEVIRTUAL, fieldTypes[i], methods[i].getName(), "(L" + eventName + ";)V", false);
+                } else {
+                    mv.visitMethodInsn(INVOKEVIRTUAL, REGISTERED_HANDLER, "handle", DISPATCH_METHOD_DESCRIPTOR, false);
+                }
+                mv.visitLabel(end);
+                mv.visitJumpInsn(GOTO, next);
+
+                mv.visitLabel(handler);
+                mv.visitVarInsn(ASTORE, 2);
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitLdcInsn(i);
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitMethodInsn(INVOKEVIRTUAL, BASE_DISPATCHER, "handleException", HANDLE_EXCEPTION_DESCRIPTOR, false);
+
+                mv.visitLabel(next);
+            }
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    /**
+     * Defines a single dispatcher class, resolving the listener and event
+     * classes it refers to directly instead of through the parent.
+     */
+    private static class LocalClassLoader extends ClassLoader {
+
+        private final Map<String, Class<?>> classes = Maps.newHashMap();
+
+        private LocalClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        private void addClass(Class<?> type) {
+            this.classes.put(type.getName(), type);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            Class<?> type = this.classes.get(name);
+            if (type != null) {
+                return type;
+            }
+
+            return super.loadClass(name, resolve);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> Class<T> defineClass(String name, byte[] b) {
+            return (Class<T>) defineClass(name, b, 0, b.length);
+        }
+
+    }
+
+}
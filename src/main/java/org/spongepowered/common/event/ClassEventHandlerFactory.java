@@ -40,26 +40,35 @@
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Maps;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Type;
 import org.spongepowered.api.event.Event;
 
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Generates an {@link AnnotatedEventHandler} class per listener method.
+ *
+ * <p>The classes for each listener class are defined in a separate class
+ * loader that is only weakly referenced by this factory. Once all handlers of
+ * a listener class were unregistered, the generated classes can be unloaded
+ * together with their class loader.</p>
+ */
 public final class ClassEventHandlerFactory implements AnnotatedEventHandler.Factory {
 
     private final AtomicInteger id = new AtomicInteger();
-    private final LocalClassLoader classLoader = new LocalClassLoader(getClass().getClassLoader());
-    private final LoadingCache<Method, Class<? extends AnnotatedEventHandler>> cache = CacheBuilder.newBuilder()
-            .concurrencyLevel(1)
+    private final LoadingCache<Class<?>, LocalClassLoader> classLoaders = CacheBuilder.newBuilder()
+            .weakKeys()
             .weakValues()
-            .build(new CacheLoader<Method, Class<? extends AnnotatedEventHandler>>() {
+            .build(new CacheLoader<Class<?>, LocalClassLoader>() {
 
                 @Override
-                public Class<? extends AnnotatedEventHandler> load(Method method) throws Exception {
-                    return createClass(method);
+                public LocalClassLoader load(Class<?> handle) throws Exception {
+                    return new LocalClassLoader(ClassEventHandlerFactory.class.getClassLoader(), handle);
                 }
             });
 
@@ -73,18 +82,16 @@ public ClassEventHandlerFactory(String targetPackage) {
 
     @Override
     public AnnotatedEventHandler create(Object handle, Method method) throws Exception {
-        return this.cache.get(method)
+        return this.classLoaders.get(method.getDeclaringClass())
+                .getHandlerClass(method)
                 .getConstructor(method.getDeclaringClass())
                 .newInstance(handle);
     }
 
-    private Class<? extends AnnotatedEventHandler> createClass(Method method) {
-        Class<?> handle = method.getDeclaringClass();
-        Class<?> eventClass = method.getParameterTypes()[0];
-        String name = this.targetPackage
-                + eventClass.getSimpleName() + "Handler_" +  handle.getSimpleName() + '_' + method.getName()
+    private String createName(Method method) {
+        return this.targetPackage
+                + method.getParameterTypes()[0].getSimpleName() + "Handler_" + method.getDeclaringClass().getSimpleName() + '_' + method.getName()
                 + this.id.incrementAndGet();
-        return this.classLoader.defineClass(name, generateClass(name, handle, method, eventClass));
     }
 
     private static final String BASE_HANDLER = Type.getInternalName(AnnotatedEventHandler.class);
@@ -129,10 +136,42 @@ private static byte[] generateClass(String name, Class<?> handle, Method method,
         return cw.toByteArray();
     }
 
-    private static class LocalClassLoader extends ClassLoader {
+    /**
+     * Defines the handler classes for a single listener class, resolving the
+     * listener and event classes directly instead of through the parent.
+     */
+    private class LocalClassLoader extends ClassLoader {
 
-        private LocalClassLoader(ClassLoader parent) {
+        private final Class<?> handle;
+        private final Map<Method, Class<? extends AnnotatedEventHandler>> handlerClasses = Maps.newHashMap();
+        private final Map<String, Class<?>> classes = Maps.newConcurrentMap();
+
+        private LocalClassLoader(ClassLoader parent, Class<?> handle) {
             super(parent);
+            this.handle = handle;
+            this.classes.put(handle.getName(), handle);
+        }
+
+        private synchronized Class<? extends AnnotatedEventHandler> getHandlerClass(Method method) {
+            Class<? extends AnnotatedEventHandler> handlerClass = this.handlerClasses.get(method);
+            if (handlerClass == null) {
+                String name = createName(method);
+                Class<?> eventClass = method.getParameterTypes()[0];
+                this.classes.put(eventClass.getName(), eventClass);
+                handlerClass = defineClass(name, generateClass(name, this.handle, method, eventClass));
+                this.handlerClasses.put(method, handlerClass);
+            }
+            return handlerClass;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            Class<?> type = this.classes.get(name);
+            if (type != null) {
+                return type;
+            }
+
+            return super.loadClass(name, resolve);
         }
 
         @SuppressWarnings("unchecked")
@@ -0,0 +1,103 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Timings of a single {@link RegisteredHandler}, recorded while event timings
+ * are enabled in the {@link SpongeEventManager}.
+ *
+ * <p>Invocation times are additionally counted in a histogram with buckets
+ * doubling in size, starting at one microsecond.</p>
+ */
+public final class HandlerTimings {
+
+    private static final int BUCKETS = 24;
+
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    void record(long nanos) {
+        this.count.incrementAndGet();
+        this.totalNanos.addAndGet(nanos);
+
+        long max;
+        do {
+            max = this.maxNanos.get();
+        } while (nanos > max && !this.maxNanos.compareAndSet(max, nanos));
+
+        int bucket = 64 - Long.numberOfLeadingZeros(nanos / 1000);
+        this.histogram.incrementAndGet(Math.min(bucket, BUCKETS - 1));
+    }
+
+    public void reset() {
+        this.count.set(0);
+        this.totalNanos.set(0);
+        this.maxNanos.set(0);
+        for (int i = 0; i < BUCKETS; i++) {
+            this.histogram.set(i, 0);
+        }
+    }
+
+    public long getCount() {
+        return this.count.get();
+    }
+
+    public long getTotalNanos() {
+        return this.totalNanos.get();
+    }
+
+    public long getMaxNanos() {
+        return this.maxNanos.get();
+    }
+
+    private static long getBucketUpperBoundNanos(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) * 1000;
+    }
+
+    /**
+     * Estimates a percentile of the invocation times from the histogram.
+     *
+     * @param percentile The percentile, between 0 and 1
+     * @return The upper bound of the bucket containing the percentile, in
+     *     nanoseconds, capped at the maximum recorded time
+     */
+    public long getPercentileNanos(double percentile) {
+        long threshold = (long) Math.ceil(getCount() * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.histogram.get(i);
+            if (seen >= threshold) {
+                return Math.min(getBucketUpperBoundNanos(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+}
@@ -26,16 +26,24 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.spongepowered.api.event.Cancellable;
 import org.spongepowered.api.event.Event;
 import org.spongepowered.api.event.EventHandler;
 import org.spongepowered.api.event.Order;
 import org.spongepowered.api.plugin.PluginContainer;
 
+import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.EnumMap;
 import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nullable;
 
 public final class RegisteredHandler<T extends Event> implements SpongeEventHandler<T>, Comparable<RegisteredHandler<?>> {
 
@@ -47,13 +55,21 @@
     private final EventHandler<? super T> handler;
 
     private final boolean ignoreCancelled;
+    private final boolean async;
+
+    @Nullable private final Method method;
+
+    private final HandlerTimings timings = new HandlerTimings();
 
-    RegisteredHandler(PluginContainer plugin, Class<T> eventClass, Order order, EventHandler<? super T> handler, boolean ignoreCancelled) {
+    RegisteredHandler(PluginContainer plugin, Class<T> eventClass, Order order, EventHandler<? super T> handler, boolean ignoreCancelled,
+            boolean async, @Nullable Method method) {
         this.plugin = checkNotNull(plugin, "plugin");
         this.eventClass = checkNotNull(eventClass, "eventClass");
         this.order = checkNotNull(order, "order");
         this.handler = checkNotNull(handler, "handler");
         this.ignoreCancelled = ignoreCancelled;
+        this.async = async;
+        this.method = method;
     }
 
     public PluginContainer getPlugin() {
@@ -68,6 +84,36 @@ public Order getOrder() {
         return this.order;
     }
 
+    public boolean isIgnoreCancelled() {
+        return this.ignoreCancelled;
+    }
+
+    /**
+     * Gets whether this handler is called on the asynchronous event lane
+     * instead of the posting thread.
+     *
+     * @return Whether this handler is asynchronous
+     * @see Async
+     */
+    public boolean isAsync() {
+        return this.async;
+    }
+
+    /**
+     * Gets the listener method invoked by this handler, if it was registered
+     * through a {@link org.spongepowered.api.event.Subscribe} annotation.
+     *
+     * @return The listener method, or null
+     */
+    @Nullable
+    public Method getMethod() {
+        return this.method;
+    }
+
+    public HandlerTimings getTimings() {
+        return this.timings;
+    }
+
     @Override
     public Object getHandle() {
         if (this.handler instanceof SpongeEventHandler) {
@@ -91,22 +137,46 @@ public int compareTo(RegisteredHandler<?> handler) {
         return this.order.compareTo(handler.order);
     }
 
+    /**
+     * An immutable, sorted view of the handlers for an event type. Caches are
+     * safe to share between threads, changes create a new cache.
+     *
+     * <p>{@link Async} handlers are kept separately, all other methods only
+     * return the handlers that are called on the posting thread.</p>
+     */
     public static final class Cache {
 
         private final List<RegisteredHandler<?>> handlers;
+        private final List<RegisteredHandler<?>> asyncHandlers;
         private final EnumMap<Order, List<RegisteredHandler<?>>> handlersByOrder;
 
+        @Nullable private volatile EventDispatcher dispatcher;
+        private int postCount;
+
         private static final Order[] ORDERS = Order.values();
 
         Cache(List<RegisteredHandler<?>> handlers) {
-            this.handlers = handlers;
-
-            this.handlersByOrder = Maps.newEnumMap(Order.class);
+            ImmutableList.Builder<RegisteredHandler<?>> syncBuilder = ImmutableList.builder();
+            ImmutableList.Builder<RegisteredHandler<?>> asyncBuilder = ImmutableList.builder();
+            EnumMap<Order, ImmutableList.Builder<RegisteredHandler<?>>> builders = Maps.newEnumMap(Order.class);
             for (Order order : ORDERS) {
-                this.handlersByOrder.put(order, Lists.<RegisteredHandler<?>>newArrayList());
+                builders.put(order, ImmutableList.<RegisteredHandler<?>>builder());
             }
             for (RegisteredHandler<?> handler : handlers) {
-                this.handlersByOrder.get(handler.getOrder()).add(handler);
+                if (handler.isAsync()) {
+                    asyncBuilder.add(handler);
+                } else {
+                    syncBuilder.add(handler);
+                    builders.get(handler.getOrder()).add(handler);
+                }
+            }
+
+            this.handlers = syncBuilder.build();
+            this.asyncHandlers = asyncBuilder.build();
+
+            this.handlersByOrder = Maps.newEnumMap(Order.class);
+            for (Order order : ORDERS) {
+                this.handlersByOrder.put(order, builders.get(order).build());
             }
         }
 
@@ -114,10 +184,82 @@ public List<RegisteredHandler<?>> getHandlers() {
             return this.handlers;
         }
 
+        public List<RegisteredHandler<?>> getAsyncHandlers() {
+            return this.asyncHandlers;
+        }
+
+        public boolean isEmpty() {
+            return this.handlers.isEmpty() && this.asyncHandlers.isEmpty();
+        }
+
         public List<RegisteredHandler<?>> getHandlersByOrder(Order order) {
             return this.handlersByOrder.get(checkNotNull(order, "order"));
         }
 
+        @Nullable
+        EventDispatcher getDispatcher() {
+            return this.dispatcher;
+        }
+
+        void setDispatcher(EventDispatcher dispatcher) {
+            this.dispatcher = dispatcher;
+        }
+
+        /**
+         * Counts a post through this cache. The count is not synchronized and
+         * only meant as an approximation of how hot the event type is.
+         *
+         * @return The approximate number of posts so far
+         */
+        int countPost() {
+            return ++this.postCount;
+        }
+
+        /**
+         * Creates a copy of this cache with the specified handlers merged in,
+         * keeping the handlers sorted by their {@link Order}. Handlers that
+         * are already part of this cache are ignored.
+         *
+         * @param added The handlers to add
+         * @return The new cache
+         */
+        Cache withHandlers(Collection<RegisteredHandler<?>> added) {
+            List<RegisteredHandler<?>> syncHandlers = Lists.newArrayList(this.handlers);
+            List<RegisteredHandler<?>> asyncHandlers = Lists.newArrayList(this.asyncHandlers);
+            for (RegisteredHandler<?> handler : added) {
+                List<RegisteredHandler<?>> handlers = handler.isAsync() ? asyncHandlers : syncHandlers;
+                if (handlers.contains(handler)) {
+                    // Already baked into this cache
+                    continue;
+                }
+
+                // Insert after all handlers with the same or an earlier order
+                int index = handlers.size();
+                while (index > 0 && handlers.get(index - 1).compareTo(handler) > 0) {
+                    index--;
+                }
+                handlers.add(index, handler);
+            }
+            return new Cache(Lists.newArrayList(Iterables.concat(syncHandlers, asyncHandlers)));
+        }
+
+        /**
+         * Creates a copy of this cache without the specified handlers.
+         *
+         * @param removed The handlers to remove
+         * @return The new cache
+         */
+        Cache withoutHandlers(Collection<RegisteredHandler<?>> removed) {
+            Set<RegisteredHandler<?>> removedSet = Sets.newHashSet(removed);
+            List<RegisteredHandler<?>> handlers = Lists.newArrayListWithCapacity(this.handlers.size() + this.asyncHandlers.size());
+            for (RegisteredHandler<?> handler : Iterables.concat(this.handlers, this.asyncHandlers)) {
+                if (!removedSet.contains(handler)) {
+                    handlers.add(handler);
+                }
+            }
+            return new Cache(handlers);
+        }
+
     }
 
 }
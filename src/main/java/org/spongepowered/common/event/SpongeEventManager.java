@@ -29,13 +29,16 @@
 
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
-import com.google.common.reflect.TypeToken;
+import com.google.common.collect.Sets;
+import com.google.common.reflect.ClassPath;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.spongepowered.api.event.Cancellable;
 import org.spongepowered.api.event.Event;
 import org.spongepowered.api.event.EventHandler;
@@ -45,58 +48,241 @@
 import org.spongepowered.api.plugin.PluginManager;
 import org.spongepowered.api.service.event.EventManager;
 import org.spongepowered.common.Sponge;
+import org.spongepowered.common.configuration.SpongeConfig;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 @Singleton
 public class SpongeEventManager implements EventManager {
 
+    /**
+     * Serializes modifications of the registered handlers. Posting events
+     * never acquires this lock, it only reads the published handler arrays
+     * and baked caches.
+     */
     private final Object lock = new Object();
 
     private final PluginManager pluginManager;
     private final AnnotatedEventHandler.Factory handlerFactory = new ClassEventHandlerFactory("org.spongepowered.common.event.handler");
-    private final Multimap<Class<?>, RegisteredHandler<?>> handlersByEvent = HashMultimap.create();
+
+    /**
+     * The registered handlers by the event class they were registered for.
+     * <p>The arrays are never modified once published, changes replace the
+     * array of the event class instead.</p>
+     */
+    private final ConcurrentMap<Class<?>, RegisteredHandler<?>[]> handlersByEvent = Maps.newConcurrentMap();
 
     /**
      * A cache of all the handlers for an event type for quick event posting.
-     * <p>The cache is currently entirely invalidated if handlers are added or removed.</p>
+     * <p>Baked entries are patched when handlers are added or removed instead
+     * of being rebuilt, see {@link #bakedTypesByEvent}.</p>
      */
-    private final LoadingCache<Class<? extends Event>, RegisteredHandler.Cache> handlersCache =
-            CacheBuilder.newBuilder().build(new CacheLoader<Class<? extends Event>, RegisteredHandler.Cache>() {
-                @Override
-                public RegisteredHandler.Cache load(Class<? extends Event> eventClass) throws Exception {
-                    return bakeHandlers(eventClass);
-                }
-            });
+    private final ConcurrentMap<Class<? extends Event>, RegisteredHandler.Cache> handlersCache = Maps.newConcurrentMap();
+
+    /**
+     * Maps each class in the hierarchy of a baked event type to the baked
+     * types it contributes handlers to, so that only the affected
+     * {@link #handlersCache} entries have to be updated on (un)registration.
+     */
+    private final ConcurrentMap<Class<?>, Set<Class<? extends Event>>> bakedTypesByEvent = Maps.newConcurrentMap();
+
+    /**
+     * Incremented whenever the registered handlers change, used to detect
+     * caches that were baked concurrently with a modification.
+     */
+    private final AtomicInteger modCount = new AtomicInteger();
+
+    /**
+     * The memoized results of {@link #getEventTypes(Class)}.
+     */
+    private final ConcurrentMap<Class<?>, Set<Class<?>>> eventTypes = Maps.newConcurrentMap();
+
+    private volatile boolean warmedUp;
+    // Bakes after the warm-up that had to resolve an unknown part of the event type hierarchy
+    private final AtomicInteger coldBakes = new AtomicInteger();
+
+    /**
+     * The number of posts through a baked cache before a dispatcher class is
+     * generated for it, so only hot event types get their own class.
+     */
+    private static final int DISPATCHER_POST_THRESHOLD = 1000;
+
+    /**
+     * The maximum number of handlers inlined into a generated dispatcher,
+     * larger handler lists are dispatched by iterating over them instead.
+     */
+    private static final int DISPATCHER_MAX_HANDLERS = 256;
+
+    private static final String EVENT_PACKAGE = "org.spongepowered.api.event";
+
+    @Nullable private final EventDispatcher.Factory dispatcherFactory;
+
+    /**
+     * The lane calling {@link Async} handlers, created on first use.
+     */
+    @Nullable private volatile AsyncEventLane asyncLane;
+
+    /**
+     * Whether handler timings are recorded. While disabled, posting only pays
+     * for reading this flag.
+     */
+    private volatile boolean timingsEnabled;
 
     @Inject
     public SpongeEventManager(PluginManager pluginManager) {
+        this(pluginManager, Sponge.getGlobalConfig().getConfig().getOptimizations().useEventDispatcherClasses());
+    }
+
+    public SpongeEventManager(PluginManager pluginManager, boolean generateDispatchers) {
         this.pluginManager = checkNotNull(pluginManager, "pluginManager");
+        this.dispatcherFactory = generateDispatchers ? new ClassEventDispatcherFactory("org.spongepowered.common.event.dispatcher") : null;
     }
 
-    private RegisteredHandler.Cache bakeHandlers(Class<?> rootEvent) {
-        List<RegisteredHandler<?>> handlers = Lists.newArrayList();
-        @SuppressWarnings({"unchecked", "rawtypes"})
-        Set<Class<?>> types = (Set) TypeToken.of(rootEvent).getTypes().rawTypes();
+    /**
+     * Gets the class and all its super types that are assignable to
+     * {@link Event}. The result is memoized per class, so resolving the types
+     * of a new event implementation mostly reuses those of its interfaces.
+     *
+     * @param type The class
+     * @return The event types of the class
+     */
+    private Set<Class<?>> getEventTypes(Class<?> type) {
+        Set<Class<?>> types = this.eventTypes.get(type);
+        if (types == null) {
+            ImmutableSet.Builder<Class<?>> builder = ImmutableSet.builder();
+            builder.add(type);
+
+            // Types not assignable to Event can't have any super types that are
+            Class<?> superclass = type.getSuperclass();
+            if (superclass != null && Event.class.isAssignableFrom(superclass)) {
+                builder.addAll(getEventTypes(superclass));
+            }
+            for (Class<?> superinterface : type.getInterfaces()) {
+                if (Event.class.isAssignableFrom(superinterface)) {
+                    builder.addAll(getEventTypes(superinterface));
+                }
+            }
+
+            types = builder.build();
+            this.eventTypes.put(type, types);
+        }
+        return types;
+    }
+
+    private boolean isResolved(Class<?> type) {
+        if (this.eventTypes.containsKey(type)) {
+            return true;
+        }
+        // Event implementations are only known once posted, but their super types may be
+        Class<?> superclass = type.getSuperclass();
+        if (superclass != null && Event.class.isAssignableFrom(superclass) && !this.eventTypes.containsKey(superclass)) {
+            return false;
+        }
+        for (Class<?> superinterface : type.getInterfaces()) {
+            if (Event.class.isAssignableFrom(superinterface) && !this.eventTypes.containsKey(superinterface)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private RegisteredHandler.Cache bakeHandlers(Class<? extends Event> rootEvent) {
+        if (this.warmedUp && !isResolved(rootEvent)) {
+            this.coldBakes.incrementAndGet();
+        }
+
+        Set<Class<?>> types = getEventTypes(rootEvent);
+
+        while (true) {
+            int modCount = this.modCount.get();
+            List<RegisteredHandler<?>> handlers = Lists.newArrayList();
 
-        synchronized (this.lock) {
             for (Class<?> type : types) {
-                if (Event.class.isAssignableFrom(type)) {
-                    handlers.addAll(this.handlersByEvent.get(type));
+                // Index the type before reading its handlers, so a concurrent modification either
+                // patches the published cache or is noticed by the modCount check below
+                getBakedTypes(type).add(rootEvent);
+
+                RegisteredHandler<?>[] registered = this.handlersByEvent.get(type);
+                if (registered != null) {
+                    Collections.addAll(handlers, registered);
                 }
             }
+
+            Collections.sort(handlers);
+            RegisteredHandler.Cache cache = new RegisteredHandler.Cache(handlers);
+            RegisteredHandler.Cache existing = this.handlersCache.putIfAbsent(rootEvent, cache);
+            if (existing != null) {
+                // Baked by another thread in the meantime
+                return existing;
+            }
+
+            if (this.modCount.get() == modCount) {
+                return cache;
+            }
+
+            // The handlers were modified while baking, the cache might have missed the change
+            this.handlersCache.remove(rootEvent, cache);
         }
+    }
 
-        Collections.sort(handlers);
-        return new RegisteredHandler.Cache(handlers);
+    private Set<Class<? extends Event>> getBakedTypes(Class<?> type) {
+        Set<Class<? extends Event>> bakedTypes = this.bakedTypesByEvent.get(type);
+        if (bakedTypes == null) {
+            bakedTypes = Sets.newSetFromMap(Maps.<Class<? extends Event>, Boolean>newConcurrentMap());
+            Set<Class<? extends Event>> existing = this.bakedTypesByEvent.putIfAbsent(type, bakedTypes);
+            if (existing != null) {
+                bakedTypes = existing;
+            }
+        }
+        return bakedTypes;
+    }
+
+    private void updateHandlerCaches(List<RegisteredHandler<?>> handlers, boolean added) {
+        if (handlers.isEmpty()) {
+            return;
+        }
+
+        this.modCount.incrementAndGet();
+
+        Multimap<Class<? extends Event>, RegisteredHandler<?>> affected = HashMultimap.create();
+        for (RegisteredHandler<?> handler : handlers) {
+            Set<Class<? extends Event>> bakedTypes = this.bakedTypesByEvent.get(handler.getEventClass());
+            if (bakedTypes != null) {
+                for (Class<? extends Event> type : bakedTypes) {
+                    affected.put(type, handler);
+                }
+            }
+        }
+
+        for (Map.Entry<Class<? extends Event>, Collection<RegisteredHandler<?>>> entry : affected.asMap().entrySet()) {
+            RegisteredHandler.Cache cache;
+            RegisteredHandler.Cache updated;
+            do {
+                cache = this.handlersCache.get(entry.getKey());
+                if (cache == null) {
+                    // Not published yet, the baking thread will notice the modification
+                    break;
+                }
+
+                updated = added ? cache.withHandlers(entry.getValue()) : cache.withoutHandlers(entry.getValue());
+            } while (!this.handlersCache.replace(entry.getKey(), cache, updated));
+        }
     }
 
     private static boolean isValidHandler(Method method) {
@@ -117,17 +303,18 @@ private void register(RegisteredHandler<?> handler) {
 
     private void register(List<RegisteredHandler<?>> handlers) {
         synchronized (this.lock) {
-            boolean changed = false;
-
-            for (RegisteredHandler handler : handlers) {
-                if (this.handlersByEvent.put(handler.getEventClass(), handler)) {
-                    changed = true;
+            for (RegisteredHandler<?> handler : handlers) {
+                RegisteredHandler<?>[] registered = this.handlersByEvent.get(handler.getEventClass());
+                if (registered == null) {
+                    registered = new RegisteredHandler<?>[] {handler};
+                } else {
+                    registered = Arrays.copyOf(registered, registered.length + 1);
+                    registered[registered.length - 1] = handler;
                 }
+                this.handlersByEvent.put(handler.getEventClass(), registered);
             }
 
-            if (changed) {
-                this.handlersCache.invalidateAll();
-            }
+            updateHandlerCaches(handlers, true);
         }
     }
 
@@ -152,7 +339,7 @@ public void register(PluginContainer plugin, Object listener) {
                         continue;
                     }
 
-                    handlers.add(createRegistration(plugin, eventClass, subscribe, handler));
+                    handlers.add(createRegistration(plugin, eventClass, subscribe, handler, method));
                 } else {
                     Sponge.getLogger().warn("The method {} on {} has @{} but has the wrong signature", method, handle.getName(),
                             Subscribe.class.getName());
@@ -164,13 +351,14 @@ public void register(PluginContainer plugin, Object listener) {
     }
 
     private static <T extends Event> RegisteredHandler<T> createRegistration(PluginContainer plugin, Class<T> eventClass, Subscribe subscribe,
-            EventHandler<? super T> handler) {
-        return createRegistration(plugin, eventClass, subscribe.order(), subscribe.ignoreCancelled(), handler);
+            EventHandler<? super T> handler, Method method) {
+        return new RegisteredHandler<T>(plugin, eventClass, subscribe.order(), handler, subscribe.ignoreCancelled(),
+                method.isAnnotationPresent(Async.class), method);
     }
 
     private static <T extends Event> RegisteredHandler<T> createRegistration(PluginContainer plugin, Class<T> eventClass, Order order,
             boolean ignoreCancelled, EventHandler<? super T> handler) {
-        return new RegisteredHandler<T>(plugin, eventClass, order, handler, ignoreCancelled);
+        return new RegisteredHandler<T>(plugin, eventClass, order, handler, ignoreCancelled, false, null);
     }
 
     private PluginContainer getPlugin(Object plugin) {
@@ -196,20 +384,27 @@ public <T extends Event> void register(Object plugin, Class<T> eventClass, Order
 
     private void unregister(Predicate<RegisteredHandler<?>> unregister) {
         synchronized (this.lock) {
-            boolean changed = false;
-
-            Iterator<RegisteredHandler<?>> itr = this.handlersByEvent.values().iterator();
-            while (itr.hasNext()) {
-                RegisteredHandler<?> handler = itr.next();
-                if (unregister.apply(handler)) {
-                    itr.remove();
-                    changed = true;
+            List<RegisteredHandler<?>> removed = Lists.newArrayList();
+
+            for (Map.Entry<Class<?>, RegisteredHandler<?>[]> entry : this.handlersByEvent.entrySet()) {
+                RegisteredHandler<?>[] registered = entry.getValue();
+                List<RegisteredHandler<?>> remaining = Lists.newArrayListWithCapacity(registered.length);
+                for (RegisteredHandler<?> handler : registered) {
+                    if (unregister.apply(handler)) {
+                        removed.add(handler);
+                    } else {
+                        remaining.add(handler);
+                    }
                 }
-            }
 
-            if (changed) {
-                this.handlersCache.invalidateAll();
+                if (remaining.isEmpty()) {
+                    this.handlersByEvent.remove(entry.getKey());
+                } else if (remaining.size() != registered.length) {
+                    this.handlersByEvent.put(entry.getKey(), remaining.toArray(new RegisteredHandler<?>[remaining.size()]));
+                }
             }
+
+            updateHandlerCaches(removed, false);
         }
     }
 
@@ -237,8 +432,59 @@ public boolean apply(RegisteredHandler<?> handler) {
         });
     }
 
+    private RegisteredHandler.Cache getHandlerCache(Class<? extends Event> eventClass) {
+        RegisteredHandler.Cache cache = this.handlersCache.get(eventClass);
+        if (cache == null) {
+            cache = bakeHandlers(eventClass);
+        }
+        return cache;
+    }
+
     protected RegisteredHandler.Cache getHandlerCache(Event event) {
-        return this.handlersCache.getUnchecked(checkNotNull(event, "event").getClass());
+        return getHandlerCache(checkNotNull(event, "event").getClass());
+    }
+
+    /**
+     * Checks whether any handlers are registered for the specified event
+     * class or one of its super types, so callers can skip constructing
+     * events nobody listens to.
+     *
+     * <p>Once the event class has been baked this is a single lookup that
+     * doesn't allocate, and the result is kept up to date when handlers are
+     * registered or unregistered.</p>
+     *
+     * @param eventClass The event class, usually the event interface
+     * @return Whether the event has any handlers
+     */
+    public boolean hasListeners(Class<? extends Event> eventClass) {
+        return !getHandlerCache(checkNotNull(eventClass, "eventClass")).isEmpty();
+    }
+
+    /**
+     * Posts an event to the specified handlers, recording their timings if
+     * enabled.
+     *
+     * @param event The event
+     * @param handlers The handlers to call
+     * @return Whether the event was cancelled
+     */
+    boolean postHandlers(Event event, List<RegisteredHandler<?>> handlers) {
+        return this.timingsEnabled ? postTimed(event, handlers) : post(event, handlers);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean postTimed(Event event, List<RegisteredHandler<?>> handlers) {
+        for (RegisteredHandler handler : handlers) {
+            long start = System.nanoTime();
+            try {
+                handler.handle(event);
+            } catch (Throwable e) {
+                Sponge.getLogger().error("Could not pass {} to {}", event.getClass().getSimpleName(), handler.getPlugin(), e);
+            }
+            handler.getTimings().record(System.nanoTime() - start);
+        }
+
+        return event instanceof Cancellable && ((Cancellable) event).isCancelled();
     }
 
     @SuppressWarnings("unchecked")
@@ -254,13 +500,218 @@ protected static boolean post(Event event, List<RegisteredHandler<?>> handlers)
         return event instanceof Cancellable && ((Cancellable) event).isCancelled();
     }
 
+    @Nullable
+    private EventDispatcher getDispatcher(Class<? extends Event> eventClass, RegisteredHandler.Cache cache) {
+        if (this.dispatcherFactory == null) {
+            return null;
+        }
+
+        EventDispatcher dispatcher = cache.getDispatcher();
+        if (dispatcher == null && cache.countPost() >= DISPATCHER_POST_THRESHOLD) {
+            // Concurrent posts may both generate a dispatcher, one of them is simply discarded
+            List<RegisteredHandler<?>> handlers = cache.getHandlers();
+            if (handlers.size() > DISPATCHER_MAX_HANDLERS) {
+                dispatcher = new ListEventDispatcher(handlers);
+            } else {
+                try {
+                    dispatcher = this.dispatcherFactory.create(eventClass, handlers);
+                } catch (Throwable e) {
+                    Sponge.getLogger().error("Failed to generate event dispatcher for {}", eventClass, e);
+                    dispatcher = new ListEventDispatcher(handlers);
+                }
+            }
+            cache.setDispatcher(dispatcher);
+        }
+        return dispatcher;
+    }
+
+    private AsyncEventLane getAsyncLane() {
+        AsyncEventLane lane = this.asyncLane;
+        if (lane == null) {
+            synchronized (this.lock) {
+                lane = this.asyncLane;
+                if (lane == null) {
+                    SpongeConfig.EventsCategory config = Sponge.getGlobalConfig().getConfig().getEvents();
+                    this.asyncLane = lane = new AsyncEventLane(this, Math.max(1, config.getAsyncThreads()), Math.max(1, config.getAsyncQueueSize()));
+                }
+            }
+        }
+        return lane;
+    }
+
+    private boolean postSync(Event event, RegisteredHandler.Cache cache) {
+        if (this.timingsEnabled) {
+            return postTimed(event, cache.getHandlers());
+        }
+
+        EventDispatcher dispatcher = getDispatcher(event.getClass(), cache);
+        if (dispatcher != null) {
+            dispatcher.dispatch(event);
+            return event instanceof Cancellable && ((Cancellable) event).isCancelled();
+        }
+
+        return post(event, cache.getHandlers());
+    }
+
     @Override
     public boolean post(Event event) {
-        return post(event, getHandlerCache(event).getHandlers());
+        RegisteredHandler.Cache cache = getHandlerCache(event);
+        boolean cancelled = postSync(event, cache);
+        if (!cache.getAsyncHandlers().isEmpty()) {
+            getAsyncLane().post(event, cache.getAsyncHandlers(), null);
+        }
+        return cancelled;
+    }
+
+    /**
+     * Posts an event to its synchronous handlers on the current thread and
+     * then to its {@link Async} handlers on the asynchronous event lane.
+     *
+     * @param event The event
+     * @return A future completed with the cancellation state of the event
+     *     after all handlers were called
+     * @see #postAsync(Event, Object)
+     */
+    public ListenableFuture<Boolean> postAsync(Event event) {
+        return postAsync(event, null);
+    }
+
+    /**
+     * Posts an event to its synchronous handlers on the current thread and
+     * then to its {@link Async} handlers on the asynchronous event lane.
+     *
+     * <p>Events posted with the same ordering key, for example the unique id
+     * of a player, are delivered to the asynchronous handlers in the order
+     * they were posted.</p>
+     *
+     * @param event The event
+     * @param orderingKey The ordering key, or null if the event may be
+     *     delivered in any order
+     * @return A future completed with the cancellation state of the event
+     *     after all handlers were called, failed with a
+     *     {@link java.util.concurrent.RejectedExecutionException} if the
+     *     asynchronous event queue was full
+     */
+    public ListenableFuture<Boolean> postAsync(Event event, @Nullable Object orderingKey) {
+        RegisteredHandler.Cache cache = getHandlerCache(event);
+        boolean cancelled = postSync(event, cache);
+        if (cache.getAsyncHandlers().isEmpty()) {
+            return Futures.immediateFuture(cancelled);
+        }
+
+        return getAsyncLane().post(event, cache.getAsyncHandlers(), orderingKey);
     }
 
     public boolean post(Event event, Order order) {
-        return post(event, getHandlerCache(event).getHandlersByOrder(order));
+        return postHandlers(event, getHandlerCache(event).getHandlersByOrder(order));
+    }
+
+    /**
+     * Resolves the type hierarchy of all event interfaces in the API in
+     * parallel, so the first post of an event implementation only has to
+     * combine already resolved hierarchies.
+     *
+     * <p>Handler caches are not baked here, since posts look them up by the
+     * event implementation class rather than the interfaces. Bakes that still
+     * have to resolve part of a hierarchy afterwards are counted, see
+     * {@link #getColdBakeCount()}.</p>
+     */
+    public void warmUp() {
+        long start = System.nanoTime();
+        final List<Class<? extends Event>> eventClasses = Lists.newArrayList();
+        try {
+            for (ClassPath.ClassInfo info : ClassPath.from(Event.class.getClassLoader()).getTopLevelClassesRecursive(EVENT_PACKAGE)) {
+                addEventInterfaces(info.load(), eventClasses);
+            }
+        } catch (Throwable e) {
+            Sponge.getLogger().error("Failed to find the event classes to warm up", e);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                new ThreadFactoryBuilder().setNameFormat("Sponge-EventWarmUp-%d").setDaemon(true).build());
+        for (final Class<? extends Event> eventClass : eventClasses) {
+            executor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    getEventTypes(eventClass);
+                }
+            });
+        }
+
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        this.warmedUp = true;
+        Sponge.getLogger().debug("Warmed up {} event types in {}ms", eventClasses.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addEventInterfaces(Class<?> type, List<Class<? extends Event>> eventClasses) {
+        if (type.isInterface() && Event.class.isAssignableFrom(type)) {
+            eventClasses.add((Class<? extends Event>) type);
+        }
+        for (Class<?> nested : type.getDeclaredClasses()) {
+            addEventInterfaces(nested, eventClasses);
+        }
+    }
+
+    /**
+     * Gets the number of handler caches baked after {@link #warmUp()} for
+     * event types whose super types were not resolved by it, for example
+     * events defined by plugins.
+     *
+     * @return The number of cold bakes
+     */
+    public int getColdBakeCount() {
+        return this.coldBakes.get();
+    }
+
+    public boolean isTimingsEnabled() {
+        return this.timingsEnabled;
+    }
+
+    public void setTimingsEnabled(boolean timingsEnabled) {
+        this.timingsEnabled = timingsEnabled;
+    }
+
+    /**
+     * Gets a snapshot of all currently registered handlers, for example to
+     * report their {@link RegisteredHandler#getTimings() timings}.
+     *
+     * @return The registered handlers
+     */
+    public List<RegisteredHandler<?>> getRegisteredHandlers() {
+        List<RegisteredHandler<?>> handlers = Lists.newArrayList();
+        for (RegisteredHandler<?>[] registered : this.handlersByEvent.values()) {
+            Collections.addAll(handlers, registered);
+        }
+        return handlers;
+    }
+
+    /**
+     * Dispatches events by iterating over the handlers, used for handler
+     * lists that can't be or are too large to be compiled into a class.
+     */
+    private static final class ListEventDispatcher extends EventDispatcher {
+
+        private final List<RegisteredHandler<?>> handlerList;
+
+        ListEventDispatcher(List<RegisteredHandler<?>> handlers) {
+            super(handlers.toArray(new RegisteredHandler<?>[handlers.size()]));
+            this.handlerList = handlers;
+        }
+
+        @Override
+        public void dispatch(Event event) {
+            post(event, this.handlerList);
+        }
+
     }
 
 }
@@ -0,0 +1,82 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.interfaces;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import net.minecraft.nbt.NBTTagCompound;
+
+import java.io.IOException;
+
+import javax.annotation.Nullable;
+
+public interface IMixinAnvilChunkLoader {
+
+    /**
+     * Reads and decompresses the data of a chunk from its region file, or
+     * from the chunks waiting to be written. Can be called from any thread.
+     *
+     * @param x The chunk x coordinate
+     * @param z The chunk z coordinate
+     * @return The chunk data, or null if the chunk was never saved
+     * @throws IOException If the region file could not be read
+     */
+    @Nullable
+    NBTTagCompound readChunkNbt(int x, int z) throws IOException;
+
+    /**
+     * Gets whether a chunk was saved, without reading its data. Does not
+     * create a region file if there is none yet. Must be called from the
+     * main thread.
+     *
+     * @param x The chunk x coordinate
+     * @param z The chunk z coordinate
+     * @return Whether the chunk was saved
+     */
+    boolean isChunkSaved(int x, int z);
+
+    /**
+     * Registers a read of {@link #readChunkNbt(int, int)} running on another
+     * thread. Loading the chunk waits for the read and uses its result
+     * instead of reading the chunk again. Must be called from the main
+     * thread.
+     *
+     * @param x The chunk x coordinate
+     * @param z The chunk z coordinate
+     * @param read The future of the read
+     */
+    void addPendingRead(int x, int z, ListenableFuture<NBTTagCompound> read);
+
+    /**
+     * Removes a read registered with {@link #addPendingRead} if the chunk
+     * is not loaded after all, so that its result can't be used once it's
+     * outdated. Must be called from the main thread.
+     *
+     * @param x The chunk x coordinate
+     * @param z The chunk z coordinate
+     * @param read The future of the read
+     */
+    void removePendingRead(int x, int z, ListenableFuture<NBTTagCompound> read);
+
+}
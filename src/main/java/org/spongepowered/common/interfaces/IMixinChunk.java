@@ -0,0 +1,69 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.interfaces;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.spongepowered.api.util.gen.BlockBuffer;
+import org.spongepowered.api.util.gen.ImmutableBlockBuffer;
+import org.spongepowered.api.util.gen.MutableBlockBuffer;
+
+public interface IMixinChunk {
+
+    /**
+     * Copies the blocks of this chunk in the bounds of a buffer into the
+     * buffer.
+     *
+     * @param buffer The buffer, which must be within this chunk
+     */
+    void readBlocks(MutableBlockBuffer buffer);
+
+    /**
+     * Copies the blocks of a buffer into this chunk.
+     *
+     * @param buffer The buffer, which must be within this chunk
+     * @return The number of blocks that were changed
+     */
+    int writeBlocks(BlockBuffer buffer);
+
+    /**
+     * Takes a snapshot of the blocks of this chunk, which can be read from
+     * any thread. This does not copy any blocks, unless they are changed
+     * later on.
+     *
+     * @return The snapshot
+     */
+    ImmutableBlockBuffer getBlockSnapshot();
+
+    /**
+     * Loads this chunk without blocking the calling thread on reading it
+     * from disk. Can be called from any thread.
+     *
+     * @param generate Whether to generate the chunk if it was never saved
+     * @return A future completed on the main thread with whether the chunk
+     *     is loaded
+     */
+    ListenableFuture<Boolean> loadChunkAsync(boolean generate);
+
+}
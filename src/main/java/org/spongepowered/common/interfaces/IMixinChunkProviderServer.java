@@ -0,0 +1,68 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.interfaces;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ListenableFuture;
+import net.minecraft.world.chunk.storage.IChunkLoader;
+import org.spongepowered.api.world.Chunk;
+
+import javax.annotation.Nullable;
+
+public interface IMixinChunkProviderServer {
+
+    @Nullable
+    IChunkLoader getChunkLoader();
+
+    /**
+     * Gets whether a chunk is loaded or saved. Chunks are assumed to exist
+     * if the chunk loader can't tell whether they were saved.
+     *
+     * @param x The chunk x coordinate
+     * @param z The chunk z coordinate
+     * @return Whether the chunk was generated before
+     */
+    boolean isChunkGenerated(int x, int z);
+
+    /**
+     * Gets the number of chunks queued to be unloaded.
+     *
+     * @return The number of dropped chunks
+     */
+    int getDroppedChunkCount();
+
+    /**
+     * Loads a chunk without blocking the calling thread on reading it from
+     * disk. The chunk is added to the world on the main thread.
+     *
+     * @param x The chunk x coordinate
+     * @param z The chunk z coordinate
+     * @param generate Whether to generate the chunk if it was never saved
+     * @return A future completed with the chunk, or absent if it does not
+     *     exist and should not be generated
+     */
+    ListenableFuture<Optional<Chunk>> loadChunkAsync(int x, int z, boolean generate);
+
+}
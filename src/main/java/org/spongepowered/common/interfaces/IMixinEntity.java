@@ -26,6 +26,9 @@
 
 import net.minecraft.entity.Entity;
 import net.minecraft.nbt.NBTTagCompound;
+import org.spongepowered.common.world.SpatialIndex;
+
+import javax.annotation.Nullable;
 
 public interface IMixinEntity {
 
@@ -47,6 +50,11 @@ public interface IMixinEntity {
 
     void inactiveTick();
 
+    @Nullable
+    SpatialIndex.Entry<Entity> getSpatialIndexEntry();
+
+    void setSpatialIndexEntry(@Nullable SpatialIndex.Entry<Entity> entry);
+
     NBTTagCompound getSpongeData();
 
     /**
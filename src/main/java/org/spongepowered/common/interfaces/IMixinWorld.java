@@ -24,16 +24,34 @@
  */
 package org.spongepowered.common.interfaces;
 
+import com.flowpowered.math.vector.Vector3d;
+import com.flowpowered.math.vector.Vector3i;
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
 import net.minecraft.world.storage.WorldInfo;
+import org.spongepowered.api.entity.Entity;
+import org.spongepowered.api.util.gen.BlockBuffer;
+import org.spongepowered.api.util.gen.MutableBlockBuffer;
+import org.spongepowered.api.world.Chunk;
 import org.spongepowered.api.world.gen.GeneratorPopulator;
 import org.spongepowered.api.world.gen.Populator;
+import org.spongepowered.common.configuration.EffectiveConfig;
 import org.spongepowered.common.configuration.SpongeConfig;
 
+import java.util.List;
+
+import javax.annotation.Nullable;
+
 public interface IMixinWorld {
 
     SpongeConfig<SpongeConfig.WorldConfig> getWorldConfig();
 
+    EffectiveConfig getEffectiveConfig();
+
+    void refreshEffectiveConfig();
+
     ImmutableList<Populator> getPopulators();
 
     ImmutableList<GeneratorPopulator> getGeneratorPopulators();
@@ -42,4 +60,82 @@ public interface IMixinWorld {
 
     void updateWorldGenerator();
 
+    /**
+     * Gets the entities of a type whose position is within a box.
+     *
+     * @param min The minimum corner of the box
+     * @param max The maximum corner of the box
+     * @param type The type of entities to get
+     * @param filter A filter for the entities to get, if any
+     * @param <T> The type of entities to get
+     * @return The entities
+     */
+    <T extends Entity> List<T> getEntitiesWithin(Vector3d min, Vector3d max, Class<T> type, @Nullable Predicate<? super T> filter);
+
+    /**
+     * Gets the entities of a type whose position is within a distance of a
+     * point.
+     *
+     * @param center The point
+     * @param radius The distance
+     * @param type The type of entities to get
+     * @param filter A filter for the entities to get, if any
+     * @param <T> The type of entities to get
+     * @return The entities
+     */
+    <T extends Entity> List<T> getNearbyEntities(Vector3d center, double radius, Class<T> type, @Nullable Predicate<? super T> filter);
+
+    /**
+     * Copies the blocks of a cuboid of this world into a new buffer.
+     *
+     * @param min The minimum corner of the cuboid
+     * @param max The maximum corner of the cuboid
+     * @return The buffer
+     */
+    MutableBlockBuffer getBlockBuffer(Vector3i min, Vector3i max);
+
+    /**
+     * Copies the blocks of this world in the bounds of a buffer into the
+     * buffer.
+     *
+     * @param buffer The buffer, which must be within the block bounds of
+     *     this world
+     */
+    void readBlocks(MutableBlockBuffer buffer);
+
+    /**
+     * Copies the blocks of a buffer into this world.
+     *
+     * @param buffer The buffer, which must be within the block bounds of
+     *     this world
+     * @return The number of blocks that were changed
+     */
+    int writeBlocks(BlockBuffer buffer);
+
+    /**
+     * Loads a chunk without blocking the calling thread on reading it from
+     * disk. Can be called from any thread.
+     *
+     * @param x The chunk x coordinate
+     * @param y The chunk y coordinate
+     * @param z The chunk z coordinate
+     * @param shouldGenerate Whether to generate the chunk if it was never
+     *     saved
+     * @return A future completed on the main thread with the chunk, or
+     *     absent if it does not exist and should not be generated
+     */
+    ListenableFuture<Optional<Chunk>> loadChunkAsync(int x, int y, int z, boolean shouldGenerate);
+
+    /**
+     * Loads a chunk without blocking the calling thread on reading it from
+     * disk.
+     *
+     * @param position The chunk position
+     * @param shouldGenerate Whether to generate the chunk if it was never
+     *     saved
+     * @return A future completed on the main thread with the chunk
+     * @see #loadChunkAsync(int, int, int, boolean)
+     */
+    ListenableFuture<Optional<Chunk>> loadChunkAsync(Vector3i position, boolean shouldGenerate);
+
 }
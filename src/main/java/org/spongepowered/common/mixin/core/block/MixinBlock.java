@@ -53,6 +53,7 @@
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.LocalCapture;
 import org.spongepowered.common.Sponge;
+import org.spongepowered.common.event.SpongeEventManager;
 import org.spongepowered.common.interfaces.block.IMixinBlock;
 import org.spongepowered.common.text.translation.SpongeTranslation;
 import org.spongepowered.common.util.VecHelper;
@@ -133,6 +134,9 @@ public void setTickRandomly(boolean tickRandomly) {
 
     @Inject(method = "randomTick", at = @At(value = "HEAD"), locals = LocalCapture.CAPTURE_FAILEXCEPTION, cancellable = true)
     public void callRandomTickEvent(World world, BlockPos pos, IBlockState state, Random rand, CallbackInfo ci) {
+        if (!((SpongeEventManager) Sponge.getGame().getEventManager()).hasListeners(BlockRandomTickEvent.class)) {
+            return;
+        }
         final BlockRandomTickEvent event = SpongeEventFactory.createBlockRandomTick(Sponge.getGame(), null, new Location((Extent)world, VecHelper.toVector(pos))); //TODO Fix null Cause
         Sponge.getGame().getEventManager().post(event);
         if(event.isCancelled()) {
@@ -54,6 +54,7 @@
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.common.Sponge;
 import org.spongepowered.common.data.manipulator.block.SpongeTreeData;
+import org.spongepowered.common.event.SpongeEventManager;
 import org.spongepowered.common.interfaces.block.IMixinBlockTree;
 import org.spongepowered.common.util.VecHelper;
 
@@ -66,6 +67,9 @@ public abstract class MixinBlockLeaves extends MixinBlock implements IMixinBlock
     @Inject(method = "updateTick", at = @At(value = "INVOKE",
             target = "Lnet/minecraft/block/BlockLeaves;destroy(Lnet/minecraft/world/World;Lnet/minecraft/util/BlockPos;)V"), cancellable = true)
     public void callLeafDecay(World worldIn, BlockPos pos, IBlockState state, Random rand, CallbackInfo ci) {
+        if (!((SpongeEventManager) Sponge.getGame().getEventManager()).hasListeners(LeafDecayEvent.class)) {
+            return;
+        }
         Location block = new Location((Extent) worldIn, VecHelper.toVector(pos));
         BlockSnapshot postChange = block.getBlockSnapshot();
         postChange.setBlockState(BlockTypes.AIR.getDefaultState());
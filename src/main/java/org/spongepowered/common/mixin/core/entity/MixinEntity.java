@@ -54,11 +54,13 @@
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.common.Sponge;
+import org.spongepowered.common.entity.EntityActivationRange;
 import org.spongepowered.common.interfaces.IMixinEntity;
 import org.spongepowered.common.interfaces.IMixinEntityPlayerMP;
 import org.spongepowered.common.registry.SpongeGameRegistry;
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.world.DimensionManager;
+import org.spongepowered.common.world.SpatialIndex;
 
 import java.util.ArrayDeque;
 import java.util.EnumSet;
@@ -77,6 +79,11 @@ public abstract class MixinEntity implements Entity, IMixinEntity {
     private net.minecraft.entity.Entity teleportVehicle;
     private float origWidth;
     private float origHeight;
+    private byte activationType = EntityActivationRange.initializeEntityActivationType((net.minecraft.entity.Entity) (Object) this);
+    private boolean defaultActivationState =
+            EntityActivationRange.initializeEntityActivationState((net.minecraft.entity.Entity) (Object) this);
+    private long activatedTick = EntityActivationRange.NEVER_ACTIVATED;
+    @Nullable private SpatialIndex.Entry<net.minecraft.entity.Entity> spatialIndexEntry;
 
     @Shadow private UUID entityUniqueID;
     @Shadow public net.minecraft.world.World worldObj;
@@ -139,6 +146,22 @@ public void onMoveEntity(double x, double y, double z, CallbackInfo ci) {
     }
 
 
+    @Inject(method = "setPosition(DDD)V", at = @At("RETURN"))
+    public void onSetPosition(double x, double y, double z, CallbackInfo ci) {
+        updateSpatialIndex();
+    }
+
+    @Inject(method = "moveEntity(DDD)V", at = @At("RETURN"))
+    public void onMoveEntityReturn(double x, double y, double z, CallbackInfo ci) {
+        updateSpatialIndex();
+    }
+
+    private void updateSpatialIndex() {
+        if (this.spatialIndexEntry != null) {
+            this.spatialIndexEntry.update(this.posX, this.posY, this.posZ);
+        }
+    }
+
     @Override
     public World getWorld() {
         return (World) this.worldObj;
@@ -401,6 +424,47 @@ public void setTeleportVehicle(net.minecraft.entity.Entity vehicle) {
         this.teleportVehicle = vehicle;
     }
 
+    @Override
+    public byte getActivationType() {
+        return this.activationType;
+    }
+
+    @Override
+    public long getActivatedTick() {
+        return this.activatedTick;
+    }
+
+    @Override
+    public boolean getDefaultActivationState() {
+        return this.defaultActivationState;
+    }
+
+    @Override
+    public void setActivatedTick(long tick) {
+        this.activatedTick = tick;
+    }
+
+    @Override
+    public void inactiveTick() {
+        if (this.fire > 0) {
+            --this.fire;
+            if (this.fire == 0) {
+                setFlag(0, false);
+            }
+        }
+    }
+
+    @Override
+    @Nullable
+    public SpatialIndex.Entry<net.minecraft.entity.Entity> getSpatialIndexEntry() {
+        return this.spatialIndexEntry;
+    }
+
+    @Override
+    public void setSpatialIndexEntry(@Nullable SpatialIndex.Entry<net.minecraft.entity.Entity> entry) {
+        this.spatialIndexEntry = entry;
+    }
+
     @Override
     public EntityType getType() {
         return this.entityType;
@@ -69,6 +69,7 @@ public abstract class MixinEntityLivingBase extends MixinEntity implements Livin
     @Shadow public int hurtTime;
     @Shadow public int maxHurtTime;
     @Shadow public int deathTime;
+    @Shadow protected int entityAge;
     @Shadow public boolean potionsNeedUpdate;
     @Shadow public CombatTracker _combatTracker;
     @Shadow public EntityLivingBase entityLivingToAttack;
@@ -91,6 +92,13 @@ public abstract class MixinEntityLivingBase extends MixinEntity implements Livin
 
     private int maxAir = 300;
 
+    @Override
+    public void inactiveTick() {
+        super.inactiveTick();
+        // Keeps counting towards despawning while away from players
+        ++this.entityAge;
+    }
+
     public void setLastAttacker(@Nullable Living lastAttacker) {
         setLastAttacker((EntityLivingBase) lastAttacker);
     }
@@ -65,6 +65,7 @@
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.LocalCapture;
 import org.spongepowered.common.Sponge;
+import org.spongepowered.common.event.SpongeEventManager;
 import org.spongepowered.common.interfaces.IMixinNetworkManager;
 import org.spongepowered.common.text.SpongeTexts;
 
@@ -125,6 +126,10 @@ public void sendCustomPayload(Object plugin, String channel, byte[] data) {
      */
     @Inject(method = "processUpdateSign", at = @At(value = "INVOKE", target = "Lnet/minecraft/network/play/client/C12PacketUpdateSign;getLines()[Lnet/minecraft/util/IChatComponent;"), cancellable = true, locals = LocalCapture.CAPTURE_FAILSOFT)
     public void callSignChangeEvent(C12PacketUpdateSign packetIn, CallbackInfo ci, WorldServer worldserver, BlockPos blockpos, TileEntity tileentity, TileEntitySign tileentitysign) {
+        if (!((SpongeEventManager) Sponge.getGame().getEventManager()).hasListeners(SignChangeEvent.class)) {
+            // Nobody listens, let vanilla copy the lines without building sign data and the event
+            return;
+        }
         ci.cancel();
         final Optional<SignData> existingSignData = ((Sign) tileentitysign).getData();
         if (!existingSignData.isPresent()) {
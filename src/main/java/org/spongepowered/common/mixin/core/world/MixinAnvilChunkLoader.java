@@ -0,0 +1,120 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.core.world;
+
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.ChunkCoordIntPair;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.AnvilChunkLoader;
+import net.minecraft.world.chunk.storage.RegionFileCache;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import org.spongepowered.common.Sponge;
+import org.spongepowered.common.interfaces.IMixinAnvilChunkLoader;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+@Mixin(AnvilChunkLoader.class)
+public abstract class MixinAnvilChunkLoader implements IMixinAnvilChunkLoader {
+
+    @Shadow private Map<ChunkCoordIntPair, NBTTagCompound> chunksToRemove;
+    @Shadow private File chunkSaveLocation;
+
+    // Reads running on the chunk I/O threads, by the chunk they read
+    private final ConcurrentMap<ChunkCoordIntPair, ListenableFuture<NBTTagCompound>> pendingReads = Maps.newConcurrentMap();
+
+    @Shadow
+    protected abstract Chunk checkedReadChunkFromNBT(World worldIn, int x, int z, NBTTagCompound compound);
+
+    @Inject(method = "loadChunk(Lnet/minecraft/world/World;II)Lnet/minecraft/world/chunk/Chunk;", at = @At("HEAD"), cancellable = true)
+    public void onLoadChunk(World worldIn, int x, int z, CallbackInfoReturnable<Chunk> cir) {
+        ChunkCoordIntPair pos = new ChunkCoordIntPair(x, z);
+        ListenableFuture<NBTTagCompound> read = this.pendingReads.remove(pos);
+        // Chunks waiting to be written are newer than anything read from disk
+        if (read == null || this.chunksToRemove.containsKey(pos)) {
+            return;
+        }
+
+        NBTTagCompound compound;
+        try {
+            compound = Futures.getUnchecked(read);
+        } catch (RuntimeException e) {
+            Sponge.getLogger().error("Failed to read chunk (" + x + ", " + z + ") asynchronously, retrying", e);
+            return;
+        }
+        cir.setReturnValue(compound == null ? null : checkedReadChunkFromNBT(worldIn, x, z, compound));
+    }
+
+    @Override
+    public NBTTagCompound readChunkNbt(int x, int z) throws IOException {
+        NBTTagCompound compound = this.chunksToRemove.get(new ChunkCoordIntPair(x, z));
+        if (compound != null) {
+            return compound;
+        }
+
+        DataInputStream stream = RegionFileCache.getChunkInputStream(this.chunkSaveLocation, x, z);
+        if (stream == null) {
+            return null;
+        }
+        try {
+            return CompressedStreamTools.read(stream);
+        } finally {
+            stream.close();
+        }
+    }
+
+    @Override
+    public boolean isChunkSaved(int x, int z) {
+        if (this.chunksToRemove.containsKey(new ChunkCoordIntPair(x, z))) {
+            return true;
+        }
+        // Looking for a chunk shouldn't create its region file
+        File regionFile = new File(new File(this.chunkSaveLocation, "region"), "r." + (x >> 5) + "." + (z >> 5) + ".mca");
+        return regionFile.exists() && RegionFileCache.createOrLoadRegionFile(this.chunkSaveLocation, x, z).isChunkSaved(x & 31, z & 31);
+    }
+
+    @Override
+    public void addPendingRead(int x, int z, ListenableFuture<NBTTagCompound> read) {
+        this.pendingReads.put(new ChunkCoordIntPair(x, z), read);
+    }
+
+    @Override
+    public void removePendingRead(int x, int z, ListenableFuture<NBTTagCompound> read) {
+        this.pendingReads.remove(new ChunkCoordIntPair(x, z), read);
+    }
+
+}
@@ -29,6 +29,8 @@
 import com.flowpowered.math.vector.Vector2i;
 import com.flowpowered.math.vector.Vector3i;
 import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.util.BlockPos;
@@ -38,6 +40,7 @@
 import net.minecraft.world.biome.BiomeGenBase;
 import net.minecraft.world.biome.WorldChunkManager;
 import net.minecraft.world.chunk.ChunkPrimer;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import org.spongepowered.api.block.BlockState;
@@ -48,6 +51,9 @@
 import org.spongepowered.api.util.PositionOutOfBoundsException;
 import org.spongepowered.api.util.annotation.NonnullByDefault;
 import org.spongepowered.api.util.gen.BiomeBuffer;
+import org.spongepowered.api.util.gen.BlockBuffer;
+import org.spongepowered.api.util.gen.ImmutableBlockBuffer;
+import org.spongepowered.api.util.gen.MutableBlockBuffer;
 import org.spongepowered.api.world.Chunk;
 import org.spongepowered.api.world.biome.BiomeType;
 import org.spongepowered.api.world.gen.GeneratorPopulator;
@@ -58,12 +64,17 @@
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.common.data.SpongeBlockProcessor;
 import org.spongepowered.common.data.SpongeManipulatorRegistry;
+import org.spongepowered.common.interfaces.IMixinChunk;
+import org.spongepowered.common.interfaces.IMixinChunkProviderServer;
 import org.spongepowered.common.interfaces.IMixinWorld;
 import org.spongepowered.common.interfaces.block.IMixinBlock;
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.util.VecHelper;
+import org.spongepowered.common.util.gen.ChunkBlockCopier;
 import org.spongepowered.common.util.gen.FastChunkBuffer;
+import org.spongepowered.common.util.gen.ImmutableChunkBuffer;
 import org.spongepowered.common.util.gen.ObjectArrayMutableBiomeBuffer;
+import org.spongepowered.common.world.AsyncChunkLoader;
 import org.spongepowered.common.world.storage.SpongeChunkLayout;
 
 import java.util.Collection;
@@ -71,7 +82,7 @@
 
 @NonnullByDefault
 @Mixin(net.minecraft.world.chunk.Chunk.class)
-public abstract class MixinChunk implements Chunk {
+public abstract class MixinChunk implements Chunk, IMixinChunk {
 
     private static final Vector2i BIOME_SIZE = SpongeChunkLayout.CHUNK_SIZE.toVector2(true);
     private Vector3i chunkPos;
@@ -90,6 +101,9 @@ public abstract class MixinChunk implements Chunk {
     @Shadow
     public abstract IBlockState getBlockState(BlockPos pos);
 
+    @Shadow
+    public abstract ExtendedBlockStorage[] getBlockStorageArray();
+
     @Shadow(prefix = "shadow$")
     public abstract Block shadow$getBlock(int x, int y, int z);
 
@@ -171,6 +185,13 @@ public boolean loadChunk(boolean generate) {
         return chunk != null;
     }
 
+    @Override
+    public ListenableFuture<Boolean> loadChunkAsync(boolean generate) {
+        WorldServer worldserver = (WorldServer) this.worldObj;
+        return Futures.transform(((IMixinChunkProviderServer) worldserver.theChunkProviderServer)
+                .loadChunkAsync(this.xPosition, this.zPosition, generate), AsyncChunkLoader.IS_LOADED);
+    }
+
     @Override
     public org.spongepowered.api.world.World getWorld() {
         return (org.spongepowered.api.world.World) this.worldObj;
@@ -303,6 +324,25 @@ private void checkBiomeBounds(int x, int z) {
         }
     }
 
+    @Override
+    public void readBlocks(MutableBlockBuffer buffer) {
+        checkBlockBounds(buffer.getBlockMin().getX(), buffer.getBlockMin().getY(), buffer.getBlockMin().getZ());
+        checkBlockBounds(buffer.getBlockMax().getX(), buffer.getBlockMax().getY(), buffer.getBlockMax().getZ());
+        ChunkBlockCopier.read((net.minecraft.world.chunk.Chunk) (Object) this, buffer);
+    }
+
+    @Override
+    public int writeBlocks(BlockBuffer buffer) {
+        checkBlockBounds(buffer.getBlockMin().getX(), buffer.getBlockMin().getY(), buffer.getBlockMin().getZ());
+        checkBlockBounds(buffer.getBlockMax().getX(), buffer.getBlockMax().getY(), buffer.getBlockMax().getZ());
+        return ChunkBlockCopier.write((net.minecraft.world.chunk.Chunk) (Object) this, buffer);
+    }
+
+    @Override
+    public ImmutableBlockBuffer getBlockSnapshot() {
+        return ImmutableChunkBuffer.of(this.xPosition, this.zPosition, getBlockStorageArray());
+    }
+
     private void checkBlockBounds(int x, int y, int z) {
         if (!containsBlock(x, y, z)) {
             throw new PositionOutOfBoundsException(new Vector3i(x, y, z), this.blockMin, this.blockMax);
@@ -0,0 +1,75 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.core.world;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.common.interfaces.IMixinExtendedBlockStorage;
+
+@Mixin(ExtendedBlockStorage.class)
+public abstract class MixinExtendedBlockStorage implements IMixinExtendedBlockStorage {
+
+    @Shadow private char[] data;
+
+    // Whether the data array is referenced by a snapshot, and has to be copied before it is changed
+    private boolean dataShared;
+
+    @Inject(method = "set(IIILnet/minecraft/block/state/IBlockState;)V", at = @At("HEAD"))
+    public void onSet(int x, int y, int z, IBlockState state, CallbackInfo ci) {
+        if (this.dataShared) {
+            unshareData();
+        }
+    }
+
+    @Inject(method = "setData([C)V", at = @At("RETURN"))
+    public void onSetData(char[] data, CallbackInfo ci) {
+        this.dataShared = false;
+    }
+
+    private void unshareData() {
+        this.data = this.data.clone();
+        this.dataShared = false;
+    }
+
+    @Override
+    public char[] getSharedData() {
+        this.dataShared = true;
+        return this.data;
+    }
+
+    @Override
+    public char[] getWritableData() {
+        if (this.dataShared) {
+            unshareData();
+        }
+        return this.data;
+    }
+
+}
@@ -34,6 +34,8 @@
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.EntityHanging;
 import net.minecraft.entity.boss.EntityDragonPart;
@@ -87,6 +89,8 @@
 import org.spongepowered.api.service.permission.context.Context;
 import org.spongepowered.api.util.PositionOutOfBoundsException;
 import org.spongepowered.api.util.annotation.NonnullByDefault;
+import org.spongepowered.api.util.gen.BlockBuffer;
+import org.spongepowered.api.util.gen.MutableBlockBuffer;
 import org.spongepowered.api.world.Chunk;
 import org.spongepowered.api.world.Dimension;
 import org.spongepowered.api.world.Location;
@@ -110,11 +114,15 @@
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import org.spongepowered.common.Sponge;
+import org.spongepowered.common.configuration.EffectiveConfig;
 import org.spongepowered.common.configuration.SpongeConfig;
 import org.spongepowered.common.data.SpongeBlockProcessor;
 import org.spongepowered.common.data.SpongeManipulatorRegistry;
 import org.spongepowered.common.effect.particle.SpongeParticleEffect;
 import org.spongepowered.common.effect.particle.SpongeParticleHelper;
+import org.spongepowered.common.entity.EntityActivationRange;
+import org.spongepowered.common.interfaces.IMixinChunkProviderServer;
+import org.spongepowered.common.interfaces.IMixinEntity;
 import org.spongepowered.common.interfaces.IMixinWorld;
 import org.spongepowered.common.interfaces.IMixinWorldSettings;
 import org.spongepowered.common.interfaces.IMixinWorldType;
@@ -122,6 +130,9 @@
 import org.spongepowered.common.scoreboard.SpongeScoreboard;
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.util.VecHelper;
+import org.spongepowered.common.util.gen.CharArrayMutableBlockBuffer;
+import org.spongepowered.common.util.gen.ChunkBlockCopier;
+import org.spongepowered.common.world.SpatialIndex;
 import org.spongepowered.common.world.border.PlayerBorderListener;
 import org.spongepowered.common.world.gen.CustomChunkProviderGenerate;
 import org.spongepowered.common.world.gen.CustomWorldChunkManager;
@@ -137,6 +148,8 @@
 import java.util.Random;
 import java.util.UUID;
 
+import javax.annotation.Nullable;
+
 @NonnullByDefault
 @Mixin(net.minecraft.world.World.class)
 public abstract class MixinWorld implements World, IMixinWorld {
@@ -149,6 +162,8 @@ public abstract class MixinWorld implements World, IMixinWorld {
     private static final Vector2i BIOME_SIZE = BIOME_MAX.sub(BIOME_MIN).add(1, 1);
     private boolean keepSpawnLoaded;
     public SpongeConfig<SpongeConfig.WorldConfig> worldConfig;
+    private volatile EffectiveConfig effectiveConfig;
+    private final SpatialIndex<net.minecraft.entity.Entity> entityIndex = new SpatialIndex<net.minecraft.entity.Entity>();
     private volatile Context worldContext;
     private ImmutableList<Populator> populators;
     private ImmutableList<GeneratorPopulator> generatorPopulators;
@@ -209,6 +224,49 @@ public void onGetCollidingBoundingBoxes(net.minecraft.entity.Entity entity, net.
         }
     }
 
+    @Inject(method = "updateEntities()V", at = @At("HEAD"))
+    public void onUpdateEntities(CallbackInfo ci) {
+        EntityActivationRange.activateEntities((net.minecraft.world.World) (Object) this);
+    }
+
+    @Inject(method = "updateEntityWithOptionalForce(Lnet/minecraft/entity/Entity;Z)V", at = @At("HEAD"), cancellable = true)
+    public void onUpdateEntityWithOptionalForce(net.minecraft.entity.Entity entity, boolean forceUpdate, CallbackInfo ci) {
+        if (forceUpdate && !EntityActivationRange.checkIfActive(entity)) {
+            entity.lastTickPosX = entity.posX;
+            entity.lastTickPosY = entity.posY;
+            entity.lastTickPosZ = entity.posZ;
+            ++entity.ticksExisted;
+            ((IMixinEntity) entity).inactiveTick();
+            ci.cancel();
+        }
+    }
+
+    @Inject(method = "updateEntityWithOptionalForce(Lnet/minecraft/entity/Entity;Z)V", at = @At("RETURN"))
+    public void onUpdateEntityWithOptionalForceReturn(net.minecraft.entity.Entity entity, boolean forceUpdate, CallbackInfo ci) {
+        SpatialIndex.Entry<net.minecraft.entity.Entity> entry = ((IMixinEntity) entity).getSpatialIndexEntry();
+        if (entry != null) {
+            entry.update(entity.posX, entity.posY, entity.posZ);
+        }
+    }
+
+    @Inject(method = "onEntityAdded(Lnet/minecraft/entity/Entity;)V", at = @At("RETURN"))
+    public void onEntityAddedIndex(net.minecraft.entity.Entity entity, CallbackInfo ci) {
+        IMixinEntity spongeEntity = (IMixinEntity) entity;
+        if (spongeEntity.getSpatialIndexEntry() != null) {
+            spongeEntity.getSpatialIndexEntry().remove();
+        }
+        spongeEntity.setSpatialIndexEntry(this.entityIndex.add(entity, entity.posX, entity.posY, entity.posZ));
+    }
+
+    @Inject(method = "onEntityRemoved(Lnet/minecraft/entity/Entity;)V", at = @At("RETURN"))
+    public void onEntityRemovedIndex(net.minecraft.entity.Entity entity, CallbackInfo ci) {
+        IMixinEntity spongeEntity = (IMixinEntity) entity;
+        if (spongeEntity.getSpatialIndexEntry() != null) {
+            spongeEntity.getSpatialIndexEntry().remove();
+            spongeEntity.setSpatialIndexEntry(null);
+        }
+    }
+
     @Override
     public float getTemperature(Vector3i position) {
         return getTemperature(position.getX(), position.getY(), position.getZ());
@@ -266,6 +324,20 @@ public Optional<Chunk> loadChunk(int x, int y, int z, boolean shouldGenerate) {
         return Optional.fromNullable((Chunk) chunk);
     }
 
+    @Override
+    public ListenableFuture<Optional<Chunk>> loadChunkAsync(Vector3i position, boolean shouldGenerate) {
+        return loadChunkAsync(position.getX(), position.getY(), position.getZ(), shouldGenerate);
+    }
+
+    @Override
+    public ListenableFuture<Optional<Chunk>> loadChunkAsync(int x, int y, int z, boolean shouldGenerate) {
+        if (!SpongeChunkLayout.instance.isValidChunk(x, y, z)) {
+            return Futures.immediateFuture(Optional.<Chunk>absent());
+        }
+        WorldServer worldserver = (WorldServer) (Object) this;
+        return ((IMixinChunkProviderServer) worldserver.theChunkProviderServer).loadChunkAsync(x, z, shouldGenerate);
+    }
+
     @Override
     public BlockState getBlock(int x, int y, int z) {
         checkBlockBounds(x, y, z);
@@ -285,6 +357,41 @@ public void setBlock(int x, int y, int z, BlockState block) {
         SpongeHooks.setBlockState(((net.minecraft.world.World) (Object) this), x, y, z, block);
     }
 
+    @Override
+    public MutableBlockBuffer getBlockBuffer(Vector3i min, Vector3i max) {
+        MutableBlockBuffer buffer = new CharArrayMutableBlockBuffer(min, max.sub(min).add(Vector3i.ONE));
+        readBlocks(buffer);
+        return buffer;
+    }
+
+    @Override
+    public void readBlocks(MutableBlockBuffer buffer) {
+        Vector3i min = buffer.getBlockMin();
+        Vector3i max = buffer.getBlockMax();
+        checkBlockBounds(min.getX(), min.getY(), min.getZ());
+        checkBlockBounds(max.getX(), max.getY(), max.getZ());
+        for (int chunkX = min.getX() >> 4; chunkX <= max.getX() >> 4; chunkX++) {
+            for (int chunkZ = min.getZ() >> 4; chunkZ <= max.getZ() >> 4; chunkZ++) {
+                ChunkBlockCopier.read(getChunkFromChunkCoords(chunkX, chunkZ), buffer);
+            }
+        }
+    }
+
+    @Override
+    public int writeBlocks(BlockBuffer buffer) {
+        Vector3i min = buffer.getBlockMin();
+        Vector3i max = buffer.getBlockMax();
+        checkBlockBounds(min.getX(), min.getY(), min.getZ());
+        checkBlockBounds(max.getX(), max.getY(), max.getZ());
+        int changed = 0;
+        for (int chunkX = min.getX() >> 4; chunkX <= max.getX() >> 4; chunkX++) {
+            for (int chunkZ = min.getZ() >> 4; chunkZ <= max.getZ() >> 4; chunkZ++) {
+                changed += ChunkBlockCopier.write(getChunkFromChunkCoords(chunkX, chunkZ), buffer);
+            }
+        }
+        return changed;
+    }
+
     @Override
     public BiomeType getBiome(int x, int z) {
         checkBiomeBounds(x, z);
@@ -513,6 +620,22 @@ public SpongeConfig<SpongeConfig.WorldConfig> getWorldConfig() {
         return this.worldConfig;
     }
 
+    @Override
+    public EffectiveConfig getEffectiveConfig() {
+        EffectiveConfig config = this.effectiveConfig;
+        if (config == null) {
+            // Built on first use, as the dimension config is only set up after the world is constructed
+            refreshEffectiveConfig();
+            config = this.effectiveConfig;
+        }
+        return config;
+    }
+
+    @Override
+    public void refreshEffectiveConfig() {
+        this.effectiveConfig = new EffectiveConfig(SpongeHooks.getActiveConfig((net.minecraft.world.World) (Object) this), Sponge.getGlobalConfig());
+    }
+
     @Override
     public void playSound(SoundType sound, Vector3d position, double volume) {
         this.playSound(sound, position, volume, 1);
@@ -542,6 +665,25 @@ public Optional<Entity> getEntity(UUID uuid) {
         return Optional.absent();
     }
 
+    @Override
+    public <T extends Entity> List<T> getEntitiesWithin(Vector3d min, Vector3d max, Class<T> type, @Nullable Predicate<? super T> filter) {
+        checkNotNull(min, "min");
+        checkNotNull(max, "max");
+        checkNotNull(type, "type");
+        List<T> entities = new ArrayList<T>();
+        this.entityIndex.query(min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ(), type, filter, entities);
+        return entities;
+    }
+
+    @Override
+    public <T extends Entity> List<T> getNearbyEntities(Vector3d center, double radius, Class<T> type, @Nullable Predicate<? super T> filter) {
+        checkNotNull(center, "center");
+        checkNotNull(type, "type");
+        List<T> entities = new ArrayList<T>();
+        this.entityIndex.queryRadius(center.getX(), center.getY(), center.getZ(), radius, type, filter, entities);
+        return entities;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public Iterable<Chunk> getLoadedChunks() {
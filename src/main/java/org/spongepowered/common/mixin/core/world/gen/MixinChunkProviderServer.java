@@ -0,0 +1,74 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.core.world.gen;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ListenableFuture;
+import net.minecraft.world.chunk.storage.IChunkLoader;
+import net.minecraft.world.gen.ChunkProviderServer;
+import org.spongepowered.api.world.Chunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.common.interfaces.IMixinAnvilChunkLoader;
+import org.spongepowered.common.interfaces.IMixinChunkProviderServer;
+import org.spongepowered.common.world.AsyncChunkLoader;
+
+import java.util.Set;
+
+@Mixin(ChunkProviderServer.class)
+public abstract class MixinChunkProviderServer implements IMixinChunkProviderServer {
+
+    @Shadow private IChunkLoader chunkLoader;
+    @Shadow private Set<Long> droppedChunksSet;
+
+    @Shadow
+    public abstract boolean chunkExists(int x, int z);
+
+    private final AsyncChunkLoader asyncChunkLoader = new AsyncChunkLoader((ChunkProviderServer) (Object) this);
+
+    @Override
+    public IChunkLoader getChunkLoader() {
+        return this.chunkLoader;
+    }
+
+    @Override
+    public boolean isChunkGenerated(int x, int z) {
+        if (chunkExists(x, z)) {
+            return true;
+        }
+        return !(this.chunkLoader instanceof IMixinAnvilChunkLoader) || ((IMixinAnvilChunkLoader) this.chunkLoader).isChunkSaved(x, z);
+    }
+
+    @Override
+    public int getDroppedChunkCount() {
+        return this.droppedChunksSet.size();
+    }
+
+    @Override
+    public ListenableFuture<Optional<Chunk>> loadChunkAsync(int x, int z, boolean generate) {
+        return this.asyncChunkLoader.loadChunk(x, z, generate);
+    }
+
+}
@@ -24,30 +24,39 @@
  */
 package org.spongepowered.common.service.scheduler;
 
-import org.spongepowered.api.service.scheduler.Task;
+import com.google.common.primitives.Longs;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.spongepowered.common.Sponge;
+import org.spongepowered.common.configuration.SpongeConfig;
 
-import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
 
 public class AsyncScheduler extends SchedulerBase {
 
-    // Adjustable timeout for pending Tasks
-    private long minimumTimeout = Long.MAX_VALUE;
-    private long lastProcessingTimestamp;
-    // Locking mechanism
-    private final Lock lock = new ReentrantLock();
-    private final Condition condition = this.lock.newCondition();
-    // The dynamic thread pooling executor of asynchronous tasks.
-    private ExecutorService executor;
+    // Waiting tasks, ordered by the time they are next due. Cancelled tasks
+    // are removed from the queue, or dropped when they reach its head if they
+    // were cancelled while being started.
+    private final DelayQueue<DelayedTask> queue = new DelayQueue<DelayedTask>();
+    private final AtomicLong sequenceNumber = new AtomicLong();
+    // The bounded thread pool running asynchronous tasks, created on first use
+    private volatile ThreadPoolExecutor executor;
+    // The settings to use instead of the global config, if any
+    @Nullable private final SpongeConfig.SchedulerCategory config;
 
     AsyncScheduler() {
+        this(null);
+    }
+
+    AsyncScheduler(@Nullable SpongeConfig.SchedulerCategory config) {
         super(ScheduledTask.TaskSynchronicity.ASYNCHRONOUS);
+        this.config = config;
 
         Thread thread = new Thread(new Runnable() {
 
@@ -62,89 +71,122 @@ public void run() {
     }
 
     private void mainLoop() {
-        this.executor = Executors.newCachedThreadPool();
-        this.lastProcessingTimestamp = System.currentTimeMillis();
         while (true) {
-            recalibrateMinimumTimeout();
-            this.runTick();
+            DelayedTask delayed;
+            try {
+                // Blocks until the earliest task is due
+                delayed = this.queue.take();
+            } catch (InterruptedException ignored) {
+                continue;
+            }
+            try {
+                this.processDueTask(delayed.task, delayed.deadline);
+            } catch (Throwable t) {
+                Sponge.getLogger().error("The async scheduler failed to start the task {}", delayed.task, t);
+            }
         }
     }
 
-    private void recalibrateMinimumTimeout() {
-        this.lock.lock();
-        try {
-            Set<Task> tasks = this.getScheduledTasks();
-            this.minimumTimeout = Long.MAX_VALUE;
-            long now = System.currentTimeMillis();
-            for (Task tmpTask : tasks) {
-                ScheduledTask task = (ScheduledTask) tmpTask;
-                // Recalibrate the wait delay for processing tasks before new
-                // tasks cause the scheduler to process pending tasks.
-                if (task.offset == 0 && task.period == 0) {
-                    this.minimumTimeout = 0;
-                }
-                // The time since the task last executed or was added to the map
-                long timeSinceLast = now - task.getTimestamp();
+    private void processDueTask(ScheduledTask task, long deadline) {
+        if (task.getState() == ScheduledTask.ScheduledTaskState.CANCELED) {
+            this.removeTask(task);
+            return;
+        }
+        task.setTimestamp(System.currentTimeMillis());
+        task.setDueTime(deadline);
+        // Repeating tasks are due again one period after they were started.
+        // If the task has a period of 0 (zero) this task will not repeat.
+        if (task.period == 0L) {
+            this.removeTask(task);
+            task.setQueueEntry(null);
+        } else {
+            this.enqueue(task, task.period);
+        }
+        this.startTask(task);
+    }
 
-                if (task.offset > 0 && task.getState() == ScheduledTask.ScheduledTaskState.WAITING) {
-                    // There is an offset and the task hasn't run yet
-                    this.minimumTimeout = Math.min(task.offset - timeSinceLast, this.minimumTimeout);
-                }
-                if (task.period > 0 && task.getState() == ScheduledTask.ScheduledTaskState.RUNNING) {
-                    // The task repeats and has run after the initial delay
-                    this.minimumTimeout = Math.min(task.period - timeSinceLast, this.minimumTimeout);
-                }
-                if (this.minimumTimeout <= 0) {
-                    break;
+    private void enqueue(ScheduledTask task, long delay) {
+        DelayedTask delayed = new DelayedTask(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay),
+                this.sequenceNumber.getAndIncrement());
+        task.setQueueEntry(delayed);
+        this.queue.add(delayed);
+        // The task may have been cancelled before the new entry was visible
+        if (task.getState() == ScheduledTask.ScheduledTaskState.CANCELED) {
+            this.queue.remove(delayed);
+        }
+    }
+
+    private ThreadPoolExecutor getExecutor() {
+        ThreadPoolExecutor executor = this.executor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = this.executor;
+                if (executor == null) {
+                    SpongeConfig.SchedulerCategory config = this.config != null ? this.config : Sponge.getGlobalConfig().getConfig().getScheduler();
+                    int threads = Math.max(1, config.getAsyncThreads());
+                    executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                            new ThreadFactoryBuilder().setNameFormat("Sponge-AsyncScheduler-%d").setDaemon(true).build());
+                    executor.allowCoreThreadTimeOut(true);
+                    this.executor = executor;
                 }
             }
-            if (!tasks.isEmpty()) {
-                long latency = System.currentTimeMillis() - this.lastProcessingTimestamp;
-                this.minimumTimeout -= (latency <= 0) ? 0 : latency;
-                this.minimumTimeout = (this.minimumTimeout < 0) ? 0 : this.minimumTimeout;
-            }
-        } finally {
-            this.lock.unlock();
         }
+        return executor;
     }
 
     @Override
-    protected void preTick() {
-        this.lock.lock();
-        try {
-            this.condition.await(this.minimumTimeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException ignored) {
-            // The taskMap has been modified; there is work to do.
-            // Continue on without handling the Exception.
-        } catch (IllegalMonitorStateException e) {
-            Sponge.getLogger().error("The scheduler internal state machine suffered a catastrophic error", e);
-        }
+    protected void executeTaskRunnable(Runnable runnable) {
+        this.getExecutor().execute(runnable);
     }
 
     @Override
-    protected void postTick() {
-        this.lastProcessingTimestamp = System.currentTimeMillis();
+    protected void executeHandoff(Runnable runnable) {
+        this.getExecutor().execute(runnable);
     }
 
     @Override
-    protected void finallyPostTick() {
-        this.lock.unlock();
+    protected void addTask(ScheduledTask task) {
+        super.addTask(task);
+        this.enqueue(task, task.offset);
     }
 
     @Override
-    protected void executeTaskRunnable(Runnable runnable) {
-        this.executor.submit(runnable);
+    protected void cancelTask(ScheduledTask task) {
+        this.removeTask(task);
+        Delayed delayed = task.getQueueEntry();
+        if (delayed != null) {
+            this.queue.remove(delayed);
+        }
     }
 
-    @Override
-    protected void addTask(ScheduledTask task) {
-        this.lock.lock();
-        try {
-            super.addTask(task);
-            this.condition.signalAll();
-        } finally {
-            this.lock.unlock();
+    private static final class DelayedTask implements Delayed {
+
+        final ScheduledTask task;
+        final long deadline;
+        private final long sequenceNumber;
+
+        DelayedTask(ScheduledTask task, long deadline, long sequenceNumber) {
+            this.task = task;
+            this.deadline = deadline;
+            this.sequenceNumber = sequenceNumber;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(this.deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
         }
+
+        @Override
+        public int compareTo(Delayed other) {
+            DelayedTask that = (DelayedTask) other;
+            // Compare by difference to stay correct if nanoTime overflows
+            long diff = this.deadline - that.deadline;
+            if (diff != 0) {
+                return diff < 0 ? -1 : 1;
+            }
+            return Longs.compare(this.sequenceNumber, that.sequenceNumber);
+        }
+
     }
 
 }
@@ -29,6 +29,9 @@
 import org.spongepowered.api.service.scheduler.Task;
 
 import java.util.UUID;
+import java.util.concurrent.Delayed;
+
+import javax.annotation.Nullable;
 
 /**
  * An internal representation of a {@link Task} created by a plugin.
@@ -40,13 +43,26 @@ public class ScheduledTask implements Task {
     final boolean delayIsTicks;
     final boolean intervalIsTicks;
     private final PluginContainer owner;
-    private final Runnable runnableBody;
+    private volatile Runnable runnableBody;
     private long timestamp;
-    private ScheduledTaskState state;
-    private final UUID id;
-    private final String name;
+    private volatile ScheduledTaskState state;
+    // The id and generated name are only allocated when first asked for
+    private volatile UUID id;
+    private volatile String name;
     private final TaskSynchronicity syncType;
-    private final String stringRepresentation;
+    @Nullable private final Object coalescingKey;
+    private final boolean replaceCoalesced;
+    // Whether further submissions with the coalescing key still merge into this task
+    private boolean coalescing;
+    private SchedulerBase scheduler;
+    // The position of this task in the timing wheel of the scheduler, if any
+    private TimingWheel.Node<ScheduledTask> wheelNode;
+    // The entry of this task in the delay queue of the async scheduler, if any
+    private volatile Delayed queueEntry;
+    // The tick in which this task last became due
+    private long dueTick;
+    // The System#nanoTime at which this task was last due to start
+    private long dueTime;
 
     // Internal Task state. Not for user-service use.
     public enum ScheduledTaskState {
@@ -64,8 +80,13 @@ public enum ScheduledTaskState {
         CANCELED,
     }
 
-    ScheduledTask(TaskSynchronicity syncType, Runnable task, String taskName, long delay, boolean delayIsTicks, long interval,
+    ScheduledTask(TaskSynchronicity syncType, Runnable task, @Nullable String taskName, long delay, boolean delayIsTicks, long interval,
             boolean intervalIsTicks, PluginContainer pluginContainer) {
+        this(syncType, task, taskName, delay, delayIsTicks, interval, intervalIsTicks, pluginContainer, null, false);
+    }
+
+    ScheduledTask(TaskSynchronicity syncType, Runnable task, @Nullable String taskName, long delay, boolean delayIsTicks, long interval,
+            boolean intervalIsTicks, PluginContainer pluginContainer, @Nullable Object coalescingKey, boolean replaceCoalesced) {
         // All tasks begin waiting.
         this.setState(ScheduledTaskState.WAITING);
         this.offset = delay;
@@ -74,18 +95,11 @@ public enum ScheduledTaskState {
         this.intervalIsTicks = intervalIsTicks;
         this.owner = pluginContainer;
         this.runnableBody = task;
-        this.id = UUID.randomUUID();
         this.name = taskName;
         this.syncType = syncType;
-
-        this.stringRepresentation = Objects.toStringHelper(this)
-                .add("name", this.name)
-                .add("delay", this.offset)
-                .add("interval", this.period)
-                .add("owner", this.owner)
-                .add("id", this.id)
-                .add("isAsync", this.isAsynchronous())
-                .toString();
+        this.coalescingKey = coalescingKey;
+        this.replaceCoalesced = replaceCoalesced;
+        this.coalescing = coalescingKey != null;
     }
 
     @Override
@@ -106,10 +120,17 @@ public long getInterval() {
     @Override
     public boolean cancel() {
         boolean success = false;
-        if (this.getState() != ScheduledTask.ScheduledTaskState.RUNNING) {
-            success = true;
+        // Under the same lock as merge, so no submission is merged into a cancelled task
+        synchronized (this) {
+            if (this.getState() != ScheduledTask.ScheduledTaskState.RUNNING) {
+                success = true;
+            }
+            this.setState(ScheduledTask.ScheduledTaskState.CANCELED);
+            this.coalescing = false;
+        }
+        if (this.scheduler != null) {
+            this.scheduler.taskCancelled(this);
         }
-        this.setState(ScheduledTask.ScheduledTaskState.CANCELED);
         return success;
     }
 
@@ -120,12 +141,66 @@ public Runnable getRunnable() {
 
     @Override
     public UUID getUniqueId() {
-        return this.id;
+        UUID id = this.id;
+        if (id == null) {
+            synchronized (this) {
+                id = this.id;
+                if (id == null) {
+                    this.id = id = UUID.randomUUID();
+                    if (this.scheduler != null) {
+                        this.scheduler.indexTask(this);
+                    }
+                }
+            }
+        }
+        return id;
+    }
+
+    boolean hasUniqueId() {
+        return this.id != null;
     }
 
     @Override
     public String getName() {
-        return this.name;
+        String name = this.name;
+        if (name == null) {
+            synchronized (this) {
+                name = this.name;
+                if (name == null) {
+                    this.name = name = this.scheduler.nextName(this.owner);
+                }
+            }
+        }
+        return name;
+    }
+
+    @Nullable
+    Object getCoalescingKey() {
+        return this.coalescingKey;
+    }
+
+    /**
+     * Merges a later submission with the same coalescing key into this task,
+     * if it has not started or been cancelled yet.
+     *
+     * @param task The later submission
+     * @return True if the submission was merged
+     */
+    synchronized boolean merge(ScheduledTask task) {
+        if (!this.coalescing || this.getState() == ScheduledTaskState.CANCELED) {
+            return false;
+        }
+        if (this.replaceCoalesced) {
+            this.runnableBody = task.runnableBody;
+        }
+        return true;
+    }
+
+    /**
+     * Stops merging later submissions into this task, before it starts.
+     */
+    synchronized void stopCoalescing() {
+        this.coalescing = false;
     }
 
     @Override
@@ -149,9 +224,56 @@ void setState(ScheduledTaskState state) {
         this.state = state;
     }
 
+    SchedulerBase getScheduler() {
+        return this.scheduler;
+    }
+
+    void setScheduler(SchedulerBase scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    TimingWheel.Node<ScheduledTask> getWheelNode() {
+        return this.wheelNode;
+    }
+
+    void setWheelNode(TimingWheel.Node<ScheduledTask> wheelNode) {
+        this.wheelNode = wheelNode;
+    }
+
+    Delayed getQueueEntry() {
+        return this.queueEntry;
+    }
+
+    void setQueueEntry(Delayed queueEntry) {
+        this.queueEntry = queueEntry;
+    }
+
+    long getDueTick() {
+        return this.dueTick;
+    }
+
+    void setDueTick(long dueTick) {
+        this.dueTick = dueTick;
+    }
+
+    long getDueTime() {
+        return this.dueTime;
+    }
+
+    void setDueTime(long dueTime) {
+        this.dueTime = dueTime;
+    }
+
     @Override
     public String toString() {
-        return this.stringRepresentation;
+        return Objects.toStringHelper(this)
+                .add("name", this.getName())
+                .add("delay", this.offset)
+                .add("interval", this.period)
+                .add("owner", this.owner)
+                .add("id", this.getUniqueId())
+                .add("isAsync", this.isAsynchronous())
+                .toString();
     }
 
     public enum TaskSynchronicity {
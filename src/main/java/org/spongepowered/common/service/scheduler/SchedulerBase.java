@@ -25,29 +25,49 @@
 package org.spongepowered.common.service.scheduler;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import org.spongepowered.api.plugin.PluginContainer;
 import org.spongepowered.api.service.scheduler.Task;
 import org.spongepowered.common.Sponge;
 
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 abstract class SchedulerBase {
 
     // The simple queue of all pending (and running) ScheduledTasks
-    private final Map<UUID, ScheduledTask> taskMap = Maps.newConcurrentMap();
-    private long sequenceNumber = 0L;
+    private final Set<ScheduledTask> tasks = Collections.newSetFromMap(Maps.<ScheduledTask, Boolean>newConcurrentMap());
+    // Tasks by id, for the tasks whose id has been asked for
+    private final Map<UUID, ScheduledTask> tasksById = Maps.newConcurrentMap();
+    // Pending tasks submitted with a coalescing key, by plugin and key
+    private final ConcurrentMap<PluginContainer, ConcurrentMap<Object, ScheduledTask>> coalescedTasks = Maps.newConcurrentMap();
+    private final AtomicLong sequenceNumber = new AtomicLong();
     private final String taskNameFmt;
+    private final ScheduledTask.TaskSynchronicity type;
+    private final ConcurrentMap<PluginContainer, TaskMetrics> metrics = Maps.newConcurrentMap();
 
     protected SchedulerBase(ScheduledTask.TaskSynchronicity type) {
+        this.type = type;
         this.taskNameFmt = "%s-" + (type == ScheduledTask.TaskSynchronicity.SYNCHRONOUS ? "S" : "A") + "-%d";
     }
 
     protected String nextName(PluginContainer plugin) {
-        return String.format(this.taskNameFmt, plugin.getId(), this.sequenceNumber++);
+        return String.format(this.taskNameFmt, plugin.getId(), this.sequenceNumber.getAndIncrement());
     }
 
     /**
@@ -63,105 +83,144 @@ protected long getTimestamp(ScheduledTask task) {
     }
 
     /**
-     * Adds the task to the task map, will attempt to process the task on the
-     * next call to {@link #runTick}.
+     * Adds the task to the task map, subclasses schedule it to be started
+     * once it is due.
      *
      * @param task The task to add
      * @return An optional of the same task, absent if it could not be added
      */
     protected void addTask(ScheduledTask task) {
+        task.setScheduler(this);
         task.setTimestamp(this.getTimestamp(task));
-        this.taskMap.put(task.getUniqueId(), task);
+        this.tasks.add(task);
+        if (task.hasUniqueId()) {
+            this.indexTask(task);
+        }
     }
 
     /**
-     * Removes the task from the task map.
+     * Adds a task submitted with a coalescing key, unless a task with the same
+     * key is still pending, in which case it is merged into that task.
      *
-     * @param task The task to remove
+     * @param task The task to add
+     * @return The task the submission ended up in
      */
-    protected void removeTask(ScheduledTask task) {
-        this.taskMap.remove(task.getUniqueId());
-    }
-
-    protected Optional<Task> getTask(UUID id) {
-        return Optional.<Task>fromNullable(this.taskMap.get(id));
+    ScheduledTask addCoalescedTask(ScheduledTask task) {
+        ConcurrentMap<Object, ScheduledTask> pendingTasks = this.coalescedTasks.get(task.getOwner());
+        if (pendingTasks == null) {
+            pendingTasks = Maps.newConcurrentMap();
+            ConcurrentMap<Object, ScheduledTask> previous = this.coalescedTasks.putIfAbsent(task.getOwner(), pendingTasks);
+            if (previous != null) {
+                pendingTasks = previous;
+            }
+        }
+        while (true) {
+            ScheduledTask pending = pendingTasks.putIfAbsent(task.getCoalescingKey(), task);
+            if (pending == null) {
+                this.addTask(task);
+                return task;
+            }
+            if (pending.merge(task)) {
+                return pending;
+            }
+            // The pending task started or was cancelled in the meantime
+            pendingTasks.remove(task.getCoalescingKey(), pending);
+        }
     }
 
-    protected Set<Task> getScheduledTasks() {
-        synchronized (this.taskMap) {
-            return Sets.<Task>newHashSet(this.taskMap.values());
+    private void releaseCoalescingKey(ScheduledTask task) {
+        ConcurrentMap<Object, ScheduledTask> pendingTasks = this.coalescedTasks.get(task.getOwner());
+        if (pendingTasks != null) {
+            pendingTasks.remove(task.getCoalescingKey(), task);
         }
     }
 
     /**
-     * Process all tasks in the map.
+     * Makes a task that is in the task map findable by its id.
+     *
+     * @param task The task
      */
-    protected final void runTick() {
-        this.preTick();
-        try {
-            for (ScheduledTask task : this.taskMap.values()) {
-                this.processTask(task);
-            }
-            this.postTick();
-        } finally {
-            this.finallyPostTick();
+    void indexTask(ScheduledTask task) {
+        this.tasksById.put(task.getUniqueId(), task);
+        if (!this.tasks.contains(task)) {
+            // The task was removed while it was being indexed
+            this.tasksById.remove(task.getUniqueId(), task);
         }
     }
 
     /**
-     * Fired when the scheduler begins to tick, before any tasks are processed.
+     * Removes the task from the task map.
+     *
+     * @param task The task to remove
      */
-    protected void preTick() {
+    protected void removeTask(ScheduledTask task) {
+        this.tasks.remove(task);
+        if (task.hasUniqueId()) {
+            this.tasksById.remove(task.getUniqueId(), task);
+        }
     }
 
     /**
-     * Fired when the scheduler has processed all tasks.
+     * Called by a task of this scheduler when it is cancelled.
+     *
+     * @param task The cancelled task
      */
-    protected void postTick() {
+    final void taskCancelled(ScheduledTask task) {
+        if (task.getCoalescingKey() != null) {
+            this.releaseCoalescingKey(task);
+        }
+        this.cancelTask(task);
     }
 
     /**
-     * Fired after tasks have attempted to be processed, in a finally block to
-     * guarantee execution regardless of any error when processing a task.
+     * Called when a task of this scheduler has been cancelled, possibly from
+     * another thread. Subclasses remove the task right away or once it would
+     * next be due.
+     *
+     * @param task The cancelled task
      */
-    protected void finallyPostTick() {
+    protected void cancelTask(ScheduledTask task) {
+    }
+
+    protected Optional<Task> getTask(UUID id) {
+        return Optional.<Task>fromNullable(this.tasksById.get(id));
+    }
+
+    protected Set<Task> getScheduledTasks() {
+        return Sets.<Task>newHashSet(this.tasks);
     }
 
     /**
-     * Processes the task.
+     * Gets the task metrics of a plugin, registering them with JMX when they
+     * are first created.
      *
-     * @param task The task to process
+     * @param plugin The plugin
+     * @return The metrics of the tasks the plugin runs on this scheduler
      */
-    protected void processTask(ScheduledTask task) {
-        // If the task is now slated to be cancelled, we just remove it as if it
-        // no longer exists.
-        if (task.getState() == ScheduledTask.ScheduledTaskState.CANCELED) {
-            this.removeTask(task);
-            return;
-        }
-        long threshold = Long.MAX_VALUE;
-        // Figure out if we start a delayed Task after threshold ticks or, start
-        // it after the interval (period) of the repeating task parameter.
-        if (task.getState() == ScheduledTask.ScheduledTaskState.WAITING) {
-            threshold = task.offset;
-        } else if (task.getState() == ScheduledTask.ScheduledTaskState.RUNNING) {
-            threshold = task.period;
-        }
-        // This moment is 'now'
-        long now = this.getTimestamp(task);
-        // So, if the current time minus the timestamp of the task is greater
-        // than the delay to wait before starting the task, then start the task.
-        // Repeating tasks get a reset-timestamp each time they are set RUNNING
-        // If the task has a period of 0 (zero) this task will not repeat, and
-        // is removed after we start it.
-        if (threshold <= (now - task.getTimestamp())) {
-            task.setTimestamp(now);
-            startTask(task);
-            // If task is one time shot, remove it from the map.
-            if (task.period == 0L) {
-                this.removeTask(task);
+    protected TaskMetrics getMetrics(PluginContainer plugin) {
+        TaskMetrics metrics = this.metrics.get(plugin);
+        if (metrics == null) {
+            metrics = new TaskMetrics(plugin, this.type == ScheduledTask.TaskSynchronicity.ASYNCHRONOUS);
+            TaskMetrics previous = this.metrics.putIfAbsent(plugin, metrics);
+            if (previous != null) {
+                return previous;
+            }
+            try {
+                ObjectName name = new ObjectName("org.spongepowered:type=Scheduler,scheduler="
+                        + (metrics.isAsynchronous() ? "async" : "sync") + ",plugin=" + ObjectName.quote(plugin.getId()));
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(metrics, name);
+                }
+            } catch (JMException e) {
+                Sponge.getLogger().warn("Could not register the scheduler metrics of {} with JMX", plugin.getId(), e);
             }
         }
+        return metrics;
+    }
+
+    protected Map<PluginContainer, TaskMetrics> getMetrics() {
+        return ImmutableMap.copyOf(this.metrics);
     }
 
     /**
@@ -170,17 +229,30 @@ protected void processTask(ScheduledTask task) {
      * @param task The task to start
      */
     protected void startTask(final ScheduledTask task) {
+        final TaskMetrics metrics = this.getMetrics(task.getOwner());
+        final long dueTime = task.getDueTime();
+        metrics.taskQueued();
         this.executeTaskRunnable(new Runnable() {
 
             @Override
             public void run() {
+                long start = System.nanoTime();
+                metrics.taskDequeued();
+                if (task.getCoalescingKey() != null) {
+                    // Later submissions with the same key need a new task from now on
+                    task.stopCoalescing();
+                    releaseCoalescingKey(task);
+                }
                 task.setState(ScheduledTask.ScheduledTaskState.RUNNING);
+                boolean failed = false;
                 try {
                     task.getRunnable().run();
                 } catch (Throwable t) {
+                    failed = true;
                     Sponge.getLogger().error("The Scheduler tried to run the task {} owned by {}, but an error occured.", task.getName(),
                             task.getOwner(), t);
                 }
+                metrics.record(start - dueTime, System.nanoTime() - start, failed);
             }
         });
     }
@@ -192,4 +264,85 @@ public void run() {
      */
     protected abstract void executeTaskRunnable(Runnable runnable);
 
+    /**
+     * Runs a one-shot piece of work handed over by a plugin. This may be
+     * called from any thread and must not run the work on the calling thread.
+     *
+     * @param runnable The runnable to run
+     */
+    protected abstract void executeHandoff(Runnable runnable);
+
+    /**
+     * Runs a piece of work for a plugin as soon as possible, without creating
+     * a task for it. Exceptions are caught and logged.
+     *
+     * @param plugin The plugin handing over the work
+     * @param runnable The work to run
+     */
+    void execute(PluginContainer plugin, Runnable runnable) {
+        this.executeHandoff(new Handoff<Object>(plugin, this.getMetrics(plugin), runnable, null, null));
+    }
+
+    /**
+     * Runs a piece of work for a plugin as soon as possible, without creating
+     * a task for it.
+     *
+     * @param plugin The plugin handing over the work
+     * @param callable The work to run
+     * @param <V> The type of the result
+     * @return A future completed with the result of the work, or failed with
+     *     the exception it threw
+     */
+    <V> ListenableFuture<V> submit(PluginContainer plugin, Callable<V> callable) {
+        SettableFuture<V> future = SettableFuture.create();
+        this.executeHandoff(new Handoff<V>(plugin, this.getMetrics(plugin), null, callable, future));
+        return future;
+    }
+
+    private static final class Handoff<V> implements Runnable {
+
+        private final PluginContainer plugin;
+        private final TaskMetrics metrics;
+        @Nullable private final Runnable runnable;
+        @Nullable private final Callable<V> callable;
+        @Nullable private final SettableFuture<V> future;
+        private final long dueTime = System.nanoTime();
+
+        Handoff(PluginContainer plugin, TaskMetrics metrics, @Nullable Runnable runnable, @Nullable Callable<V> callable,
+                @Nullable SettableFuture<V> future) {
+            this.plugin = plugin;
+            this.metrics = metrics;
+            this.runnable = runnable;
+            this.callable = callable;
+            this.future = future;
+            metrics.taskQueued();
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            this.metrics.taskDequeued();
+            if (this.future != null && this.future.isCancelled()) {
+                return;
+            }
+            boolean failed = false;
+            try {
+                if (this.future != null) {
+                    this.future.set(this.callable.call());
+                } else {
+                    this.runnable.run();
+                }
+            } catch (Throwable t) {
+                failed = true;
+                if (this.future != null) {
+                    this.future.setException(t);
+                } else {
+                    Sponge.getLogger().error("The Scheduler tried to run work handed over by {}, but an error occured.", this.plugin, t);
+                }
+            }
+            this.metrics.record(start - this.dueTime, System.nanoTime() - start, failed);
+        }
+
+    }
+
 }
@@ -29,6 +29,7 @@
 
 import com.google.common.base.Optional;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
 import org.spongepowered.api.plugin.PluginContainer;
 import org.spongepowered.api.service.scheduler.SchedulerService;
 import org.spongepowered.api.service.scheduler.Task;
@@ -36,8 +37,12 @@
 import org.spongepowered.common.Sponge;
 
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -139,20 +144,90 @@ private SchedulerBase getDelegate(Task task) {
         }
     }
 
-    private SchedulerBase getDelegate(ScheduledTask.TaskSynchronicity syncType) {
-        if (syncType == ScheduledTask.TaskSynchronicity.ASYNCHRONOUS) {
-            return this.asyncScheduler;
-        } else {
-            return this.syncScheduler;
+    Task submit(ScheduledTask task) {
+        if (task.getCoalescingKey() != null) {
+            return getDelegate(task).addCoalescedTask(task);
         }
+        getDelegate(task).addTask(task);
+        return task;
     }
 
-    String getNameFor(PluginContainer plugin, ScheduledTask.TaskSynchronicity syncType) {
-        return getDelegate(syncType).nextName(plugin);
+    /**
+     * Computes a value on the asynchronous scheduler's thread pool.
+     *
+     * @param plugin The plugin instance
+     * @param callable The computation to run
+     * @param <V> The type of the result
+     * @return A future completed with the result of the computation
+     */
+    public <V> ListenableFuture<V> supplyAsync(Object plugin, Callable<V> callable) {
+        return this.asyncScheduler.submit(checkPluginInstance(plugin), checkNotNull(callable, "callable"));
     }
 
-    void submit(ScheduledTask task) {
-        getDelegate(task).addTask(task);
+    /**
+     * Runs a computation on the main thread during the next tick. Work handed
+     * over this way is not a {@link Task} and does not show up in the
+     * scheduled tasks.
+     *
+     * @param plugin The plugin instance
+     * @param callable The computation to run
+     * @param <V> The type of the result
+     * @return A future completed with the result once the tick has run it
+     */
+    public <V> ListenableFuture<V> runOnMainThread(Object plugin, Callable<V> callable) {
+        return this.syncScheduler.submit(checkPluginInstance(plugin), checkNotNull(callable, "callable"));
+    }
+
+    /**
+     * Runs a runnable on the main thread during the next tick.
+     *
+     * @param plugin The plugin instance
+     * @param runnable The runnable to run
+     * @return A future completed once the tick has run the runnable
+     * @see #runOnMainThread(Object, Callable)
+     */
+    public ListenableFuture<Void> runOnMainThread(Object plugin, Runnable runnable) {
+        return this.syncScheduler.submit(checkPluginInstance(plugin), Executors.callable(checkNotNull(runnable, "runnable"), (Void) null));
+    }
+
+    /**
+     * Gets an executor running work on the main thread during the next tick,
+     * for example to continue a future from {@link #supplyAsync} on the main
+     * thread. Exceptions thrown by the work are logged.
+     *
+     * @param plugin The plugin instance
+     * @return An executor running work on the main thread
+     */
+    public Executor getMainThreadExecutor(Object plugin) {
+        return new HandoffExecutor(this.syncScheduler, checkPluginInstance(plugin));
+    }
+
+    /**
+     * Gets an executor running work on the asynchronous scheduler's thread
+     * pool. Exceptions thrown by the work are logged.
+     *
+     * @param plugin The plugin instance
+     * @return An executor running work asynchronously
+     */
+    public Executor getAsyncExecutor(Object plugin) {
+        return new HandoffExecutor(this.asyncScheduler, checkPluginInstance(plugin));
+    }
+
+    private static final class HandoffExecutor implements Executor {
+
+        private final SchedulerBase scheduler;
+        private final PluginContainer plugin;
+
+        HandoffExecutor(SchedulerBase scheduler, PluginContainer plugin) {
+            this.scheduler = scheduler;
+            this.plugin = plugin;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            this.scheduler.execute(this.plugin, checkNotNull(command, "command"));
+        }
+
     }
 
     /**
@@ -162,4 +237,37 @@ public void tickSyncScheduler() {
         this.syncScheduler.tick();
     }
 
+    /**
+     * Gets the metrics of the tasks each plugin runs on the synchronous or
+     * asynchronous scheduler.
+     *
+     * @param async Whether to get the metrics of the asynchronous scheduler
+     * @return The task metrics of each plugin
+     */
+    public Map<PluginContainer, TaskMetrics> getTaskMetrics(boolean async) {
+        if (async) {
+            return this.asyncScheduler.getMetrics();
+        } else {
+            return this.syncScheduler.getMetrics();
+        }
+    }
+
+    /**
+     * Gets how far behind the synchronous tasks of each plugin are running.
+     * Must be called on the main thread.
+     *
+     * @return The lateness of each plugin that has run synchronous tasks
+     */
+    public Map<PluginContainer, SyncScheduler.Lateness> getSyncTaskLateness() {
+        return this.syncScheduler.getLateness();
+    }
+
+    /**
+     * Resets the lateness of synchronous tasks. Must be called on the main
+     * thread.
+     */
+    public void resetSyncTaskLateness() {
+        this.syncScheduler.resetLateness();
+    }
+
 }
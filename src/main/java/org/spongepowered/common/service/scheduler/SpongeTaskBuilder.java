@@ -34,6 +34,8 @@
 
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.Nullable;
+
 public class SpongeTaskBuilder implements TaskBuilder {
 
     private static final long TICK_DURATION = 50;
@@ -45,6 +47,24 @@ public class SpongeTaskBuilder implements TaskBuilder {
     private long tickDelay;
     private long interval;
     private long tickInterval;
+    @Nullable private Object coalescingKey;
+    private Coalesce coalesce = Coalesce.DROP;
+
+    /**
+     * What happens to a task submitted with a coalescing key while a task with
+     * the same key is pending.
+     */
+    public enum Coalesce {
+        /**
+         * The new submission is dropped and the pending task runs as it is.
+         */
+        DROP,
+        /**
+         * The pending task runs the runnable of the new submission instead,
+         * keeping its original schedule.
+         */
+        REPLACE
+    }
 
     public SpongeTaskBuilder() {
         this.syncType = ScheduledTask.TaskSynchronicity.SYNCHRONOUS;
@@ -115,21 +135,45 @@ public TaskBuilder name(String name) {
         return this;
     }
 
+    /**
+     * Coalesces the task with other one-shot tasks of the same plugin and key.
+     * While a task submitted with the key has not started yet, later
+     * submissions with the key are dropped and {@link #submit} returns the
+     * pending task.
+     *
+     * @param key The coalescing key
+     * @return This builder, for chaining
+     */
+    public SpongeTaskBuilder coalesce(Object key) {
+        return this.coalesce(key, Coalesce.DROP);
+    }
+
+    /**
+     * Coalesces the task with other one-shot tasks of the same plugin and key.
+     * While a task submitted with the key has not started yet, later
+     * submissions with the key are merged into it as given by the mode, and
+     * {@link #submit} returns the pending task.
+     *
+     * @param key The coalescing key
+     * @param mode How later submissions are merged into the pending task
+     * @return This builder, for chaining
+     */
+    public SpongeTaskBuilder coalesce(Object key, Coalesce mode) {
+        this.coalescingKey = checkNotNull(key, "key");
+        this.coalesce = checkNotNull(mode, "mode");
+        return this;
+    }
+
     @Override
     public Task submit(Object plugin) {
         PluginContainer pluginContainer = SpongeScheduler.checkPluginInstance(plugin);
         checkState(this.runnable != null, "Runnable task not set");
-        String name;
-        if (this.name == null) {
-            name = SpongeScheduler.getInstance().getNameFor(pluginContainer, this.syncType);
-        } else {
-            name = this.name;
-        }
         long delay = this.tickDelay != -1 ? this.tickDelay : this.delay;
         long interval = this.tickInterval != -1 ? this.tickInterval : this.interval;
-        ScheduledTask task = new ScheduledTask(this.syncType, this.runnable, name, delay, this.tickDelay != -1, interval, this.tickInterval != -1,
-                pluginContainer);
-        SpongeScheduler.getInstance().submit(task);
-        return task;
+        checkState(this.coalescingKey == null || interval == 0, "Coalesced tasks cannot repeat");
+        // Without a name, one is generated when it is first asked for
+        ScheduledTask task = new ScheduledTask(this.syncType, this.runnable, this.name, delay, this.tickDelay != -1, interval,
+                this.tickInterval != -1, pluginContainer, this.coalescingKey, this.coalesce == Coalesce.REPLACE);
+        return SpongeScheduler.getInstance().submit(task);
     }
 }
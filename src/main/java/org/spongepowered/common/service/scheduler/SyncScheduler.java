@@ -24,16 +24,70 @@
  */
 package org.spongepowered.common.service.scheduler;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Queues;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.common.Sponge;
+import org.spongepowered.common.configuration.SpongeConfig;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
 /**
  * Internal implementation of the {@link SynchronousScheduler} interface.
+ *
+ * <p>Waiting tasks are kept in two {@link TimingWheel}s, one for deadlines in
+ * ticks and one for deadlines in wall clock milliseconds, so a tick only
+ * touches the tasks that are due. Tasks may be submitted and cancelled from
+ * any thread; those changes are queued and applied to the wheels at the start
+ * of the next tick.</p>
+ *
+ * <p>Due tasks are queued per plugin and run round-robin between plugins. If
+ * a tick budget is configured, the tasks that do not fit into it are deferred
+ * to the next tick, where the rotation carries on from the plugin it stopped
+ * at. A plugin may also be given its own budget, after which its remaining
+ * tasks wait for the next tick.</p>
+ *
+ * <p>Work handed over to the main thread without a task is queued separately
+ * and run after the tasks of each tick, in batches of bounded size.</p>
  */
 public class SyncScheduler extends SchedulerBase {
 
     // The number of ticks elapsed since this scheduler began.
     private volatile long counter = 0L;
+    // Tasks submitted or cancelled since the last tick
+    private final Queue<ScheduledTask> pendingTasks = Queues.newConcurrentLinkedQueue();
+    // Work handed over to the main thread, run after the tasks of each tick
+    private final Queue<Runnable> handoffs = Queues.newConcurrentLinkedQueue();
+    private final TimingWheel<ScheduledTask> tickWheel = new TimingWheel<ScheduledTask>(0L);
+    private final TimingWheel<ScheduledTask> millisWheel = new TimingWheel<ScheduledTask>(System.currentTimeMillis());
+    private final List<ScheduledTask> dueTasks = Lists.newArrayList();
+    private final Map<PluginContainer, PluginQueue> pluginQueues = Maps.newHashMap();
+    // Plugins with due tasks, in the order they get to run their next task
+    private final Queue<PluginQueue> readyQueues = Queues.newArrayDeque();
+    // Plugins that used up their own budget this tick
+    private final List<PluginQueue> exhaustedQueues = Lists.newArrayList();
+
+    // The settings to use instead of the global config, if any
+    @Nullable private final SpongeConfig.SchedulerCategory config;
 
     SyncScheduler() {
+        this(null);
+    }
+
+    SyncScheduler(@Nullable SpongeConfig.SchedulerCategory config) {
         super(ScheduledTask.TaskSynchronicity.SYNCHRONOUS);
+        this.config = config;
+    }
+
+    private SpongeConfig.SchedulerCategory getConfig() {
+        return this.config != null ? this.config : Sponge.getGlobalConfig().getConfig().getScheduler();
     }
 
     /**
@@ -41,7 +95,7 @@ public class SyncScheduler extends SchedulerBase {
      */
     void tick() {
         this.counter++;
-        this.runTick();
+        this.processTasks();
     }
 
     @Override
@@ -64,9 +118,270 @@ protected long getTimestamp(ScheduledTask task) {
         return 0L;
     }
 
+    @Override
+    protected void addTask(ScheduledTask task) {
+        super.addTask(task);
+        this.pendingTasks.add(task);
+    }
+
+    @Override
+    protected void cancelTask(ScheduledTask task) {
+        this.pendingTasks.add(task);
+    }
+
+    private void processTasks() {
+        ScheduledTask task;
+        while ((task = this.pendingTasks.poll()) != null) {
+            if (task.getState() == ScheduledTask.ScheduledTaskState.CANCELED) {
+                this.unschedule(task);
+            } else if (task.getWheelNode() == null) {
+                this.schedule(task);
+            }
+        }
+        this.tickWheel.advance(this.counter, this.dueTasks);
+        this.millisWheel.advance(System.currentTimeMillis(), this.dueTasks);
+        long now = System.nanoTime();
+        for (int i = 0; i < this.dueTasks.size(); i++) {
+            ScheduledTask due = this.dueTasks.get(i);
+            due.setWheelNode(null);
+            due.setDueTick(this.counter);
+            due.setDueTime(now);
+            this.getPluginQueue(due.getOwner()).add(due, this.readyQueues);
+        }
+        this.dueTasks.clear();
+        try {
+            if (!this.readyQueues.isEmpty()) {
+                this.runDueTasks();
+            }
+        } finally {
+            if (!this.handoffs.isEmpty()) {
+                this.runHandoffs();
+            }
+        }
+    }
+
+    private void runHandoffs() {
+        int batchSize = Math.max(1, this.getConfig().getMainThreadBatchSize());
+        Runnable handoff;
+        for (int i = 0; i < batchSize && (handoff = this.handoffs.poll()) != null; i++) {
+            handoff.run();
+        }
+    }
+
+    private PluginQueue getPluginQueue(PluginContainer plugin) {
+        PluginQueue queue = this.pluginQueues.get(plugin);
+        if (queue == null) {
+            queue = new PluginQueue(this.getMetrics(plugin));
+            this.pluginQueues.put(plugin, queue);
+        }
+        return queue;
+    }
+
+    private void runDueTasks() {
+        SpongeConfig.SchedulerCategory config = this.getConfig();
+        long budget = TimeUnit.MILLISECONDS.toNanos(config.getTickBudget());
+        Map<String, Integer> pluginBudgets = config.getPluginTickBudgets();
+        for (Map.Entry<PluginContainer, PluginQueue> entry : this.pluginQueues.entrySet()) {
+            Integer pluginBudget = pluginBudgets.isEmpty() ? null : pluginBudgets.get(entry.getKey().getId());
+            entry.getValue().startTick(pluginBudget == null ? 0L : TimeUnit.MILLISECONDS.toNanos(pluginBudget));
+        }
+
+        long start = System.nanoTime();
+        long now = start;
+        try {
+            // At least one task runs every tick, so deferred tasks always make progress
+            while (!this.readyQueues.isEmpty() && (budget <= 0 || now - start < budget)) {
+                PluginQueue queue = this.readyQueues.poll();
+                ScheduledTask task = queue.poll(this.counter);
+                try {
+                    this.processDueTask(task);
+                } finally {
+                    long end = System.nanoTime();
+                    if (!queue.isEmpty()) {
+                        if (queue.consume(end - now)) {
+                            this.readyQueues.add(queue);
+                        } else {
+                            this.exhaustedQueues.add(queue);
+                        }
+                    }
+                    now = end;
+                }
+            }
+        } finally {
+            // Plugins that ran out of their own budget resume after the others
+            this.readyQueues.addAll(this.exhaustedQueues);
+            this.exhaustedQueues.clear();
+        }
+    }
+
+    private void processDueTask(ScheduledTask task) {
+        if (task.getState() == ScheduledTask.ScheduledTaskState.CANCELED) {
+            this.removeTask(task);
+            return;
+        }
+        this.startTask(task);
+        // Tasks with a period of 0 (zero) do not repeat
+        if (task.period == 0L || task.getState() == ScheduledTask.ScheduledTaskState.CANCELED) {
+            this.removeTask(task);
+        } else {
+            task.setTimestamp(this.getTimestamp(task));
+            this.schedule(task);
+        }
+    }
+
+    private void schedule(ScheduledTask task) {
+        boolean waiting = task.getState() == ScheduledTask.ScheduledTaskState.WAITING;
+        long threshold = waiting ? task.offset : task.period;
+        boolean ticks = waiting ? task.delayIsTicks : task.intervalIsTicks;
+        TimingWheel<ScheduledTask> wheel = ticks ? this.tickWheel : this.millisWheel;
+        task.setWheelNode(wheel.schedule(task, task.getTimestamp() + threshold));
+    }
+
+    private void unschedule(ScheduledTask task) {
+        TimingWheel.Node<ScheduledTask> node = task.getWheelNode();
+        if (node != null) {
+            node.getWheel().cancel(node);
+            task.setWheelNode(null);
+        }
+        this.removeTask(task);
+    }
+
     @Override
     protected void executeTaskRunnable(Runnable runnable) {
         runnable.run();
     }
 
+    @Override
+    protected void executeHandoff(Runnable runnable) {
+        this.handoffs.add(runnable);
+    }
+
+    /**
+     * Gets how far behind the synchronous tasks of each plugin are running.
+     * Must be called on the main thread.
+     *
+     * @return The lateness of each plugin that has run synchronous tasks
+     */
+    Map<PluginContainer, Lateness> getLateness() {
+        ImmutableMap.Builder<PluginContainer, Lateness> builder = ImmutableMap.builder();
+        for (Map.Entry<PluginContainer, PluginQueue> entry : this.pluginQueues.entrySet()) {
+            PluginQueue queue = entry.getValue();
+            builder.put(entry.getKey(), new Lateness(queue.size(), queue.tasksRun, queue.totalLateness, queue.maxLateness));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Resets the lateness of every plugin. Must be called on the main thread.
+     */
+    void resetLateness() {
+        for (PluginQueue queue : this.pluginQueues.values()) {
+            queue.tasksRun = 0;
+            queue.totalLateness = 0;
+            queue.maxLateness = 0;
+        }
+    }
+
+    /**
+     * The due tasks of a single plugin.
+     */
+    private static final class PluginQueue {
+
+        private final Queue<ScheduledTask> tasks = Queues.newArrayDeque();
+        private final TaskMetrics metrics;
+        private long budget;
+        private long used;
+        long tasksRun;
+        long totalLateness;
+        long maxLateness;
+
+        PluginQueue(TaskMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        void add(ScheduledTask task, Queue<PluginQueue> readyQueues) {
+            if (this.tasks.isEmpty()) {
+                readyQueues.add(this);
+            }
+            this.tasks.add(task);
+            this.metrics.taskQueued();
+        }
+
+        ScheduledTask poll(long tick) {
+            ScheduledTask task = this.tasks.poll();
+            this.metrics.taskDequeued();
+            long lateness = tick - task.getDueTick();
+            this.tasksRun++;
+            this.totalLateness += lateness;
+            this.maxLateness = Math.max(this.maxLateness, lateness);
+            return task;
+        }
+
+        void startTick(long budget) {
+            this.budget = budget;
+            this.used = 0L;
+        }
+
+        /**
+         * Charges the time taken by a task to this plugin.
+         *
+         * @param nanos The time taken in nanoseconds
+         * @return True if the plugin may run more tasks this tick
+         */
+        boolean consume(long nanos) {
+            this.used += nanos;
+            return this.budget <= 0 || this.used < this.budget;
+        }
+
+        boolean isEmpty() {
+            return this.tasks.isEmpty();
+        }
+
+        int size() {
+            return this.tasks.size();
+        }
+
+    }
+
+    /**
+     * How far behind the synchronous tasks of a plugin are running, counted in
+     * ticks between a task becoming due and it being run.
+     */
+    public static final class Lateness {
+
+        private final int deferredTasks;
+        private final long tasksRun;
+        private final long totalTicks;
+        private final long maxTicks;
+
+        Lateness(int deferredTasks, long tasksRun, long totalTicks, long maxTicks) {
+            this.deferredTasks = deferredTasks;
+            this.tasksRun = tasksRun;
+            this.totalTicks = totalTicks;
+            this.maxTicks = maxTicks;
+        }
+
+        /**
+         * Gets the number of due tasks waiting for a later tick.
+         *
+         * @return The number of deferred tasks
+         */
+        public int getDeferredTasks() {
+            return this.deferredTasks;
+        }
+
+        public long getTasksRun() {
+            return this.tasksRun;
+        }
+
+        public long getMaxTicks() {
+            return this.maxTicks;
+        }
+
+        public double getAverageTicks() {
+            return this.tasksRun == 0 ? 0 : (double) this.totalTicks / this.tasksRun;
+        }
+
+    }
+
 }
@@ -0,0 +1,170 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.scheduler;
+
+import org.spongepowered.api.plugin.PluginContainer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of the tasks a plugin runs on one of the schedulers.
+ *
+ * <p>The lag of a task is the time between when it was due to start and when
+ * it actually started, which grows when the async pool is saturated or the
+ * synchronous tasks of a tick are deferred. The queue depth is the number of
+ * due tasks that have not started yet.</p>
+ */
+public final class TaskMetrics implements TaskMetricsMXBean {
+
+    private final PluginContainer plugin;
+    private final boolean async;
+    private final AtomicLong tasksRun = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong totalLagNanos = new AtomicLong();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+    private final AtomicLong maxRunNanos = new AtomicLong();
+
+    TaskMetrics(PluginContainer plugin, boolean async) {
+        this.plugin = plugin;
+        this.async = async;
+    }
+
+    void taskQueued() {
+        this.queued.incrementAndGet();
+    }
+
+    void taskDequeued() {
+        this.queued.decrementAndGet();
+    }
+
+    void record(long lagNanos, long runNanos, boolean failed) {
+        this.tasksRun.incrementAndGet();
+        if (failed) {
+            this.failures.incrementAndGet();
+        }
+        lagNanos = Math.max(0, lagNanos);
+        this.totalLagNanos.addAndGet(lagNanos);
+        updateMax(this.maxLagNanos, lagNanos);
+        this.totalRunNanos.addAndGet(runNanos);
+        updateMax(this.maxRunNanos, runNanos);
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        long current;
+        do {
+            current = max.get();
+        } while (value > current && !max.compareAndSet(current, value));
+    }
+
+    public PluginContainer getPluginContainer() {
+        return this.plugin;
+    }
+
+    @Override
+    public String getPlugin() {
+        return this.plugin.getId();
+    }
+
+    @Override
+    public boolean isAsynchronous() {
+        return this.async;
+    }
+
+    @Override
+    public long getTasksRun() {
+        return this.tasksRun.get();
+    }
+
+    @Override
+    public long getFailures() {
+        return this.failures.get();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return this.queued.get();
+    }
+
+    public long getTotalLagNanos() {
+        return this.totalLagNanos.get();
+    }
+
+    public long getMaxLagNanos() {
+        return this.maxLagNanos.get();
+    }
+
+    public long getTotalRunNanos() {
+        return this.totalRunNanos.get();
+    }
+
+    public long getMaxRunNanos() {
+        return this.maxRunNanos.get();
+    }
+
+    @Override
+    public double getAverageLagMillis() {
+        long count = getTasksRun();
+        return count == 0 ? 0 : getTotalLagNanos() / 1000000.0 / count;
+    }
+
+    @Override
+    public double getMaxLagMillis() {
+        return getMaxLagNanos() / 1000000.0;
+    }
+
+    @Override
+    public double getAverageRunTimeMillis() {
+        long count = getTasksRun();
+        return count == 0 ? 0 : getTotalRunNanos() / 1000000.0 / count;
+    }
+
+    @Override
+    public double getMaxRunTimeMillis() {
+        return getMaxRunNanos() / 1000000.0;
+    }
+
+    @Override
+    public double getTotalRunTimeMillis() {
+        return getTotalRunNanos() / 1000000.0;
+    }
+
+    /**
+     * Resets the recorded metrics. The queue depth is kept, as it reflects
+     * tasks that are still waiting.
+     */
+    @Override
+    public void reset() {
+        this.tasksRun.set(0);
+        this.failures.set(0);
+        this.totalLagNanos.set(0);
+        this.maxLagNanos.set(0);
+        this.totalRunNanos.set(0);
+        this.maxRunNanos.set(0);
+    }
+
+}
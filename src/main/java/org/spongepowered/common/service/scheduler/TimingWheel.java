@@ -0,0 +1,263 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.scheduler;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+
+/**
+ * A hierarchical timing wheel holding values until their deadline passes.
+ *
+ * <p>The wheel has {@link #LEVELS} levels of {@link #SLOTS} slots each, where
+ * a slot on level {@code n} spans {@code SLOTS^n} time units. Values are
+ * filed on the lowest level whose range covers their deadline and are moved
+ * down a level whenever the wheel passes the start of their slot, so
+ * advancing the wheel only touches values that are due (or about to be) and
+ * scheduling or cancelling a value is constant time. Deadlines beyond the
+ * range of the top level are parked there and re-filed when their slot comes
+ * around.</p>
+ *
+ * <p>The wheel measures time in whatever unit the caller advances it by, such
+ * as ticks or milliseconds. It is not thread safe.</p>
+ *
+ * @param <T> The type of value held by the wheel
+ */
+final class TimingWheel<T> {
+
+    static final int LEVELS = 4;
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final Node<T>[] heads;
+    private final Node<T>[] tails;
+    // One bit per slot of each level, set while the slot holds any node
+    private final long[] occupied = new long[LEVELS];
+    private long time;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long time) {
+        checkArgument(time >= 0, "Time cannot be negative");
+        this.heads = new Node[LEVELS * SLOTS];
+        this.tails = new Node[LEVELS * SLOTS];
+        this.time = time;
+    }
+
+    /**
+     * Gets the time the wheel was last advanced to.
+     *
+     * @return The current time of the wheel
+     */
+    long getTime() {
+        return this.time;
+    }
+
+    /**
+     * Gets the number of values waiting in the wheel.
+     *
+     * @return The number of values
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Schedules a value to be expired once the wheel reaches the deadline.
+     * Deadlines that are not after the current time of the wheel are expired
+     * by the next advance.
+     *
+     * @param value The value to schedule
+     * @param deadline The time at which the value is due
+     * @return The node of the value, used to cancel it
+     */
+    Node<T> schedule(T value, long deadline) {
+        Node<T> node = new Node<T>(this, checkNotNull(value, "value"), Math.max(deadline, this.time + 1));
+        this.insert(node);
+        this.size++;
+        return node;
+    }
+
+    /**
+     * Removes a node from the wheel before its deadline.
+     *
+     * @param node The node to cancel
+     * @return True if the node was still waiting in this wheel
+     */
+    boolean cancel(Node<T> node) {
+        if (node.wheel != this || node.index < 0) {
+            return false;
+        }
+        this.unlink(node);
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the given time, moving the values of every
+     * deadline that has been reached into the collection in deadline order.
+     *
+     * @param time The time to advance to
+     * @param expired The collection to add the expired values to
+     */
+    void advance(long time, Collection<? super T> expired) {
+        while (this.time < time) {
+            if (this.size == 0) {
+                this.time = time;
+                return;
+            }
+            // Nothing can be due before the next slot of the lowest occupied
+            // level begins, so jump straight to it
+            int level = 0;
+            while (this.occupied[level] == 0) {
+                level++;
+            }
+            if (level > 0) {
+                long span = 1L << (level * SLOT_BITS);
+                long boundary = (this.time / span + 1) * span;
+                if (boundary > time) {
+                    this.time = time;
+                    return;
+                }
+                this.time = boundary - 1;
+            }
+            long now = ++this.time;
+            for (int i = LEVELS - 1; i > 0; i--) {
+                if ((now & ((1L << (i * SLOT_BITS)) - 1)) == 0) {
+                    this.cascade(i, (int) (now >>> (i * SLOT_BITS)) & SLOT_MASK);
+                }
+            }
+            int index = (int) now & SLOT_MASK;
+            Node<T> node = this.detach(index);
+            while (node != null) {
+                Node<T> next = node.next;
+                node.index = -1;
+                node.prev = null;
+                node.next = null;
+                this.size--;
+                expired.add(node.value);
+                node = next;
+            }
+        }
+    }
+
+    private void cascade(int level, int slot) {
+        Node<T> node = this.detach(level * SLOTS + slot);
+        while (node != null) {
+            Node<T> next = node.next;
+            this.insert(node);
+            node = next;
+        }
+    }
+
+    private void insert(Node<T> node) {
+        long delta = node.deadline - this.time;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << ((level + 1) * SLOT_BITS)) {
+            level++;
+        }
+        int slot = (int) (node.deadline >>> (level * SLOT_BITS)) & SLOT_MASK;
+        int index = level * SLOTS + slot;
+        Node<T> tail = this.tails[index];
+        node.index = index;
+        node.prev = tail;
+        node.next = null;
+        if (tail != null) {
+            tail.next = node;
+        } else {
+            this.heads[index] = node;
+        }
+        this.tails[index] = node;
+        this.occupied[level] |= 1L << slot;
+    }
+
+    private void unlink(Node<T> node) {
+        int index = node.index;
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            this.heads[index] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        } else {
+            this.tails[index] = node.prev;
+        }
+        if (this.heads[index] == null) {
+            this.occupied[index / SLOTS] &= ~(1L << (index & SLOT_MASK));
+        }
+        node.index = -1;
+        node.prev = null;
+        node.next = null;
+    }
+
+    private Node<T> detach(int index) {
+        Node<T> head = this.heads[index];
+        if (head != null) {
+            this.heads[index] = null;
+            this.tails[index] = null;
+            this.occupied[index / SLOTS] &= ~(1L << (index & SLOT_MASK));
+        }
+        return head;
+    }
+
+    /**
+     * A value scheduled in a {@link TimingWheel}.
+     *
+     * @param <T> The type of value
+     */
+    static final class Node<T> {
+
+        final TimingWheel<T> wheel;
+        final T value;
+        final long deadline;
+        Node<T> prev;
+        Node<T> next;
+        // The slot holding this node, or -1 once it expired or was cancelled
+        int index = -1;
+
+        Node(TimingWheel<T> wheel, T value, long deadline) {
+            this.wheel = wheel;
+            this.value = value;
+            this.deadline = deadline;
+        }
+
+        TimingWheel<T> getWheel() {
+            return this.wheel;
+        }
+
+        long getDeadline() {
+            return this.deadline;
+        }
+
+        boolean isScheduled() {
+            return this.index >= 0;
+        }
+
+    }
+
+}
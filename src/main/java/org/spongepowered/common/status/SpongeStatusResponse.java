@@ -34,6 +34,7 @@
 import org.spongepowered.api.status.StatusClient;
 import org.spongepowered.api.status.StatusResponse;
 import org.spongepowered.common.Sponge;
+import org.spongepowered.common.event.SpongeEventManager;
 import org.spongepowered.common.text.LegacyTextRepresentation;
 import org.spongepowered.common.text.SpongeTexts;
 
@@ -45,6 +46,10 @@ private SpongeStatusResponse() {
     }
 
     public static ServerStatusResponse post(MinecraftServer server, StatusClient client) {
+        if (!hasListeners()) {
+            // Nothing can modify the response, so there is no need to clone it
+            return server.getServerStatusResponse();
+        }
         return call(create(server), client);
     }
 
@@ -60,7 +65,14 @@ public static ServerStatusResponse postLegacy(MinecraftServer server, InetSocket
         return response;
     }
 
+    private static boolean hasListeners() {
+        return ((SpongeEventManager) Sponge.getGame().getEventManager()).hasListeners(StatusPingEvent.class);
+    }
+
     private static ServerStatusResponse call(ServerStatusResponse response, StatusClient client) {
+        if (!hasListeners()) {
+            return response;
+        }
         if (!Sponge.getGame().getEventManager().post(SpongeEventFactory.createStatusPing(Sponge.getGame(), client,
                 (StatusPingEvent.Response) response))) {
             return response;
@@ -41,9 +41,11 @@
 import net.minecraft.world.gen.ChunkProviderServer;
 import org.spongepowered.api.block.BlockState;
 import org.spongepowered.common.Sponge;
+import org.spongepowered.common.configuration.EffectiveConfig;
 import org.spongepowered.common.configuration.SpongeConfig;
 import org.spongepowered.common.interfaces.IMixinWorld;
 import org.spongepowered.common.interfaces.IMixinWorldProvider;
+import org.spongepowered.common.world.DimensionManager;
 
 import java.io.File;
 import java.lang.management.ManagementFactory;
@@ -72,8 +74,8 @@ public static void logSevere(String msg, Object... args) {
         MinecraftServer.getServer().logSevere(MessageFormat.format(msg, args));
     }
 
-    public static void logStack(SpongeConfig<?> config) {
-        if (config.getConfig().getLogging().logWithStackTraces()) {
+    public static void logStack(EffectiveConfig config) {
+        if (config.logWithStackTraces()) {
             Throwable ex = new Throwable();
             ex.fillInStackTrace();
             ex.printStackTrace();
@@ -81,8 +83,8 @@ public static void logStack(SpongeConfig<?> config) {
     }
 
     public static void logEntityDeath(Entity entity) {
-        SpongeConfig<?> config = getActiveConfig(entity.worldObj);
-        if (config.getConfig().getLogging().entityDeathLogging()) {
+        EffectiveConfig config = getEffectiveConfig(entity.worldObj);
+        if (config.entityDeathLogging()) {
             logInfo("[" + config.getConfigName() + "] [" + config.getConfigName() + "] Dim: {0} setDead(): {1}",
                     entity.worldObj.provider.getDimensionId(), entity);
             logStack(config);
@@ -90,24 +92,24 @@ public static void logEntityDeath(Entity entity) {
     }
 
     public static void logEntityDespawn(Entity entity, String reason) {
-        SpongeConfig<?> config = getActiveConfig(entity.worldObj);
-        if (config.getConfig().getLogging().entityDespawnLogging()) {
+        EffectiveConfig config = getEffectiveConfig(entity.worldObj);
+        if (config.entityDespawnLogging()) {
             logInfo("[" + config.getConfigName() + "] Dim: {0} Despawning ({1}): {2}", entity.worldObj.provider.getDimensionId(), reason, entity);
             logStack(config);
         }
     }
 
     public static void logEntitySpawn(Entity entity) {
-        SpongeConfig<?> config = getActiveConfig(entity.worldObj);
-        if (config.getConfig().getLogging().entitySpawnLogging()) {
+        EffectiveConfig config = getEffectiveConfig(entity.worldObj);
+        if (config.entitySpawnLogging()) {
             logInfo("[" + config.getConfigName() + "] Dim: {0} Spawning: {1}", entity.worldObj.provider.getDimensionId(), entity);
             logStack(config);
         }
     }
 
     public static void logChunkLoad(World world, Vector3i chunkPos) {
-        SpongeConfig<?> config = getActiveConfig(world);
-        if (config.getConfig().getLogging().chunkLoadLogging()) {
+        EffectiveConfig config = getEffectiveConfig(world);
+        if (config.chunkLoadLogging()) {
             logInfo("[" + config.getConfigName() + "] Load Chunk At [{0}] ({1}, {2})", world.provider.getDimensionId(), chunkPos.getX(),
                     chunkPos.getZ());
             logStack(config);
@@ -115,8 +117,8 @@ public static void logChunkLoad(World world, Vector3i chunkPos) {
     }
 
     public static void logChunkUnload(World world, Vector3i chunkPos) {
-        SpongeConfig<?> config = getActiveConfig(world);
-        if (config.getConfig().getLogging().chunkUnloadLogging()) {
+        EffectiveConfig config = getEffectiveConfig(world);
+        if (config.chunkUnloadLogging()) {
             logInfo("[" + config.getConfigName() + "] Unload Chunk At [{0}] ({1}, {2})", world.provider.getDimensionId(), chunkPos.getX(),
                     chunkPos.getZ());
             logStack(config);
@@ -125,18 +127,18 @@ public static void logChunkUnload(World world, Vector3i chunkPos) {
 
     @SuppressWarnings("unused")
     private static void logChunkLoadOverride(ChunkProviderServer provider, int x, int z) {
-        SpongeConfig<?> config = getActiveConfig(provider.worldObj);
+        EffectiveConfig config = getEffectiveConfig(provider.worldObj);
         logInfo("[" + config.getConfigName() + "]  Chunk Load Override: {0}, Dimension ID: {1}", provider.chunkLoadOverride,
                 provider.worldObj.provider.getDimensionId());
     }
 
     public static boolean checkBoundingBoxSize(Entity entity, AxisAlignedBB aabb) {
-        SpongeConfig<?> config = getActiveConfig(entity.worldObj);
+        EffectiveConfig config = getEffectiveConfig(entity.worldObj);
         if (!(entity instanceof EntityLivingBase) || entity instanceof EntityPlayer) {
             return false; // only check living entities that are not players
         }
 
-        int maxBoundingBoxSize = config.getConfig().getEntity().getMaxBoundingBoxSize();
+        int maxBoundingBoxSize = config.getMaxBoundingBoxSize();
         if (maxBoundingBoxSize <= 0) {
             return false;
         }
@@ -166,12 +168,12 @@ public static boolean checkBoundingBoxSize(Entity entity, AxisAlignedBB aabb) {
     }
 
     public static boolean checkEntitySpeed(Entity entity, double x, double y, double z) {
-        SpongeConfig<?> config = getActiveConfig(entity.worldObj);
-        int maxSpeed = config.getConfig().getEntity().getMaxSpeed();
+        EffectiveConfig config = getEffectiveConfig(entity.worldObj);
+        int maxSpeed = config.getMaxSpeed();
         if (maxSpeed > 0) {
             double distance = x * x + z * z;
             if (distance > maxSpeed) {
-                if (config.getConfig().getLogging().logEntitySpeedRemoval()) {
+                if (config.logEntitySpeedRemoval()) {
                     logInfo("[" + config.getConfigName() + "] Speed violation: {0} was over {1} - Removing Entity: {2}", distance, maxSpeed, entity);
                     if (entity instanceof EntityLivingBase) {
                         EntityLivingBase livingBase = (EntityLivingBase) entity;
@@ -181,7 +183,7 @@ public static boolean checkEntitySpeed(Entity entity, double x, double y, double
                                 livingBase.moveStrafing, livingBase.moveForward);
                     }
 
-                    if (config.getConfig().getLogging().logWithStackTraces()) {
+                    if (config.logWithStackTraces()) {
                         logInfo("[" + config.getConfigName() + "] Move offset: ({0}, {1}, {2})", x, y, z);
                         logInfo("[" + config.getConfigName() + "] Motion: ({0}, {1}, {2})", entity.motionX, entity.motionY, entity.motionZ);
                         logInfo("[" + config.getConfigName() + "] Entity: {0}", entity);
@@ -208,11 +210,11 @@ public static boolean checkEntitySpeed(Entity entity, double x, double y, double
     // TODO - needs to be hooked
     @SuppressWarnings("rawtypes")
     public static void logEntitySize(Entity entity, List list) {
-        SpongeConfig<?> config = getActiveConfig(entity.worldObj);
-        if (!config.getConfig().getLogging().logEntityCollisionChecks()) {
+        EffectiveConfig config = getEffectiveConfig(entity.worldObj);
+        if (!config.logEntityCollisionChecks()) {
             return;
         }
-        int collisionWarnSize = config.getConfig().getEntity().getMaxCollisionSize();
+        int collisionWarnSize = config.getMaxCollisionSize();
 
         if (list == null) {
             return;
@@ -295,6 +297,27 @@ public static SpongeConfig<?> getActiveConfig(World world) {
         }
     }
 
+    /**
+     * Gets the settings of the active config of a world which are read on
+     * hot paths.
+     *
+     * @param world The world
+     * @return The effective config of the world
+     */
+    public static EffectiveConfig getEffectiveConfig(World world) {
+        return ((IMixinWorld) world).getEffectiveConfig();
+    }
+
+    /**
+     * Rebuilds the effective configs of all loaded worlds, after any of the
+     * global, dimension or world configs has been reloaded.
+     */
+    public static void refreshEffectiveConfigs() {
+        for (World world : DimensionManager.getWorlds()) {
+            ((IMixinWorld) world).refreshEffectiveConfig();
+        }
+    }
+
     public static void setBlockState(World world, int x, int y, int z, BlockState state) {
         setBlockState(world, new BlockPos(x, y, z), state);
     }
@@ -56,6 +56,10 @@ protected final void checkRange(int x, int z) {
         }
     }
 
+    protected final int getIndex(int x, int z) {
+        return (z - this.start.getY()) * this.size.getX() + (x - this.start.getX());
+    }
+
     @Override
     public Vector2i getBiomeMin() {
         return this.start;
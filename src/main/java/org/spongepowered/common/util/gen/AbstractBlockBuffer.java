@@ -0,0 +1,125 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.google.common.base.Preconditions;
+import net.minecraft.block.Block;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockType;
+import org.spongepowered.api.block.BlockTypes;
+import org.spongepowered.api.util.gen.BlockBuffer;
+import org.spongepowered.common.util.VecHelper;
+
+/**
+ * Base class for block buffers of any size. This class provides methods for
+ * retrieving the size and for range checking.
+ *
+ * <p>Blocks are laid out the same way as in a chunk section, with x varying
+ * fastest, then z, then y.</p>
+ */
+public abstract class AbstractBlockBuffer implements BlockBuffer {
+
+    protected final Vector3i start;
+    protected final Vector3i size;
+    protected final Vector3i end;
+
+    protected AbstractBlockBuffer(Vector3i start, Vector3i size) {
+        this.start = Preconditions.checkNotNull(start, "start");
+        this.size = Preconditions.checkNotNull(size, "size");
+
+        Preconditions.checkArgument(size.getX() > 0);
+        Preconditions.checkArgument(size.getY() > 0);
+        Preconditions.checkArgument(size.getZ() > 0);
+
+        this.end = this.start.add(this.size).sub(Vector3i.ONE);
+    }
+
+    protected final void checkRange(int x, int y, int z) {
+        if (!containsBlock(x, y, z)) {
+            throw new IndexOutOfBoundsException("Position " + new Vector3i(x, y, z) + " out of bounds for " + this);
+        }
+    }
+
+    final int getIndex(int x, int y, int z) {
+        return ((y - this.start.getY()) * this.size.getZ() + (z - this.start.getZ())) * this.size.getX() + (x - this.start.getX());
+    }
+
+    @SuppressWarnings("deprecation")
+    static char getStateId(BlockState block) {
+        return (char) Block.BLOCK_STATE_IDS.get(block);
+    }
+
+    static BlockState getState(char stateId) {
+        BlockState block = (BlockState) Block.BLOCK_STATE_IDS.getByValue(stateId);
+        return block == null ? BlockTypes.AIR.getDefaultState() : block;
+    }
+
+    @Override
+    public Vector3i getBlockMin() {
+        return this.start;
+    }
+
+    @Override
+    public Vector3i getBlockMax() {
+        return this.end;
+    }
+
+    @Override
+    public Vector3i getBlockSize() {
+        return this.size;
+    }
+
+    @Override
+    public boolean containsBlock(Vector3i position) {
+        return containsBlock(position.getX(), position.getY(), position.getZ());
+    }
+
+    @Override
+    public boolean containsBlock(int x, int y, int z) {
+        return VecHelper.inBounds(x, y, z, this.start, this.end);
+    }
+
+    @Override
+    public BlockState getBlock(Vector3i position) {
+        return getBlock(position.getX(), position.getY(), position.getZ());
+    }
+
+    @Override
+    public BlockType getBlockType(Vector3i position) {
+        return getBlockType(position.getX(), position.getY(), position.getZ());
+    }
+
+    @Override
+    public BlockType getBlockType(int x, int y, int z) {
+        return getBlock(x, y, z).getType();
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "(min = " + this.getBlockMin() + ", max = " + this.getBlockMax() + ")";
+    }
+
+}
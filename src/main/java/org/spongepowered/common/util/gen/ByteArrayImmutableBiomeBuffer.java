@@ -68,7 +68,7 @@ public ByteArrayImmutableBiomeBuffer(BiomeGenBase[] biomeGenBases, Vector2i star
     @Override
     public BiomeType getBiome(int x, int z) {
         checkRange(x, z);
-        BiomeType biomeType = (BiomeType) this.biomeById[this.biomes[(x - this.start.getX()) | (z - this.start.getY()) << 4] & 0xff];
+        BiomeType biomeType = (BiomeType) this.biomeById[this.biomes[getIndex(x, z)] & 0xff];
         return biomeType == null ? BiomeTypes.OCEAN : biomeType;
     }
 
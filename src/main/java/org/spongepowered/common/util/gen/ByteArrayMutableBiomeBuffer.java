@@ -67,7 +67,7 @@ public void setBiome(int x, int z, BiomeType biome) {
         checkOpen();
         checkRange(x, z);
 
-        this.biomes[(x - this.start.getX()) | (z - this.start.getY()) << 4] = (byte) ((BiomeGenBase) biome).biomeID;
+        this.biomes[getIndex(x, z)] = (byte) ((BiomeGenBase) biome).biomeID;
     }
 
     @Override
@@ -129,7 +129,7 @@ public BiomeType getBiome(Vector2i position) {
     public BiomeType getBiome(int x, int z) {
         checkOpen();
 
-        byte biomeId = this.biomes[(x - this.start.getX()) | (z - this.start.getY()) << 4];
+        byte biomeId = this.biomes[getIndex(x, z)];
         BiomeType biomeType = (BiomeType) this.biomeById[biomeId & 0xff];
         return biomeType == null ? BiomeTypes.OCEAN : biomeType;
     }
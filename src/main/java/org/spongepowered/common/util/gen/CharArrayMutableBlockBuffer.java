@@ -0,0 +1,95 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import com.flowpowered.math.vector.Vector3i;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockType;
+import org.spongepowered.api.util.gen.ImmutableBlockBuffer;
+import org.spongepowered.api.util.gen.MutableBlockBuffer;
+
+import java.util.Arrays;
+
+/**
+ * Mutable block buffer of any size, backed by a char array of block state
+ * ids like a chunk section. Blocks default to air.
+ */
+public final class CharArrayMutableBlockBuffer extends AbstractBlockBuffer implements MutableBlockBuffer {
+
+    final char[] blocks;
+
+    public CharArrayMutableBlockBuffer(Vector3i start, Vector3i size) {
+        super(start, size);
+        this.blocks = new char[size.getX() * size.getY() * size.getZ()];
+    }
+
+    @Override
+    public BlockState getBlock(int x, int y, int z) {
+        checkRange(x, y, z);
+        return getState(this.blocks[getIndex(x, y, z)]);
+    }
+
+    @Override
+    public void setBlock(Vector3i position, BlockState block) {
+        setBlock(position.getX(), position.getY(), position.getZ(), block);
+    }
+
+    @Override
+    public void setBlock(int x, int y, int z, BlockState block) {
+        checkRange(x, y, z);
+        this.blocks[getIndex(x, y, z)] = getStateId(block);
+    }
+
+    @Override
+    public void setBlockType(Vector3i position, BlockType type) {
+        setBlockType(position.getX(), position.getY(), position.getZ(), type);
+    }
+
+    @Override
+    public void setBlockType(int x, int y, int z, BlockType type) {
+        setBlock(x, y, z, type.getDefaultState());
+    }
+
+    @Override
+    public void setHorizontalLayer(int startY, int height, BlockState block) {
+        checkRange(this.start.getX(), startY, this.start.getZ());
+        checkRange(this.start.getX(), startY + height - 1, this.start.getZ());
+        // Layers are contiguous, as y varies slowest
+        int layerSize = this.size.getX() * this.size.getZ();
+        int from = (startY - this.start.getY()) * layerSize;
+        Arrays.fill(this.blocks, from, from + height * layerSize, getStateId(block));
+    }
+
+    @Override
+    public void fill(BlockState block) {
+        Arrays.fill(this.blocks, getStateId(block));
+    }
+
+    @Override
+    public ImmutableBlockBuffer getImmutableClone() {
+        return new CharArrayImmutableBlockBuffer(this.blocks, this.start, this.size);
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import com.flowpowered.math.vector.Vector3i;
+import net.minecraft.block.Block;
+import net.minecraft.block.ITileEntityProvider;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.server.management.PlayerManager;
+import net.minecraft.util.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockTypes;
+import org.spongepowered.api.util.gen.BlockBuffer;
+import org.spongepowered.api.util.gen.MutableBlockBuffer;
+
+import java.util.Arrays;
+
+/**
+ * Copies blocks between chunks and block buffers by walking the block state
+ * arrays of the chunk sections, the way {@link FastChunkBuffer} does, instead
+ * of looking up the chunk and section of every block.
+ *
+ * <p>Only the part of a buffer that overlaps the chunk is copied. Buffers
+ * backed by char arrays are copied a row at a time, other buffers a block at
+ * a time.</p>
+ */
+public final class ChunkBlockCopier {
+
+    private static final int SECTION_SIZE = 16;
+    /**
+     * The number of changed blocks of a chunk the player manager sends one by
+     * one. Once more blocks changed, it resends all sections that had changes.
+     */
+    private static final int MAX_CHANGED_BLOCKS_SENT = 64;
+
+    /**
+     * Copies the blocks of a chunk into the overlapping part of a buffer.
+     *
+     * @param chunk The chunk to copy from
+     * @param buffer The buffer to copy to
+     */
+    public static void read(Chunk chunk, MutableBlockBuffer buffer) {
+        Vector3i min = buffer.getBlockMin();
+        Vector3i max = buffer.getBlockMax();
+        int chunkMinX = chunk.xPosition << 4;
+        int chunkMinZ = chunk.zPosition << 4;
+        int minX = Math.max(min.getX(), chunkMinX);
+        int maxX = Math.min(max.getX(), chunkMinX + SECTION_SIZE - 1);
+        int minY = Math.max(min.getY(), 0);
+        int maxY = Math.min(max.getY(), chunk.getBlockStorageArray().length * SECTION_SIZE - 1);
+        int minZ = Math.max(min.getZ(), chunkMinZ);
+        int maxZ = Math.min(max.getZ(), chunkMinZ + SECTION_SIZE - 1);
+        if (minX > maxX || minY > maxY || minZ > maxZ) {
+            return;
+        }
+
+        ExtendedBlockStorage[] sections = chunk.getBlockStorageArray();
+        if (buffer instanceof CharArrayMutableBlockBuffer) {
+            CharArrayMutableBlockBuffer charBuffer = (CharArrayMutableBlockBuffer) buffer;
+            int length = maxX - minX + 1;
+            for (int y = minY; y <= maxY; y++) {
+                ExtendedBlockStorage section = sections[y >> 4];
+                for (int z = minZ; z <= maxZ; z++) {
+                    int index = charBuffer.getIndex(minX, y, z);
+                    if (section == null) {
+                        Arrays.fill(charBuffer.blocks, index, index + length, (char) 0);
+                    } else {
+                        System.arraycopy(section.getData(), (y & 0xf) << 8 | (z & 0xf) << 4 | (minX & 0xf), charBuffer.blocks, index, length);
+                    }
+                }
+            }
+            return;
+        }
+
+        BlockState air = BlockTypes.AIR.getDefaultState();
+        for (int y = minY; y <= maxY; y++) {
+            ExtendedBlockStorage section = sections[y >> 4];
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int x = minX; x <= maxX; x++) {
+                    buffer.setBlock(x, y, z, section == null ? air : (BlockState) section.get(x & 0xf, y & 0xf, z & 0xf));
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the overlapping part of a buffer into a chunk.
+     *
+     * <p>Changed blocks are sent to the players watching them, as single
+     * blocks or as whole sections if too many changed, and the sky light of
+     * the chunk is recalculated. Block light is not updated. Blocks with tile
+     * entities, before or after the change, are set through the chunk so that
+     * their tile entities are created or removed.</p>
+     *
+     * @param chunk The chunk to copy to
+     * @param buffer The buffer to copy from
+     * @return The number of blocks that were changed
+     */
+    public static int write(Chunk chunk, BlockBuffer buffer) {
+        Vector3i min = buffer.getBlockMin();
+        Vector3i max = buffer.getBlockMax();
+        int chunkMinX = chunk.xPosition << 4;
+        int chunkMinZ = chunk.zPosition << 4;
+        int minX = Math.max(min.getX(), chunkMinX);
+        int maxX = Math.min(max.getX(), chunkMinX + SECTION_SIZE - 1);
+        int minY = Math.max(min.getY(), 0);
+        int maxY = Math.min(max.getY(), chunk.getBlockStorageArray().length * SECTION_SIZE - 1);
+        int minZ = Math.max(min.getZ(), chunkMinZ);
+        int maxZ = Math.min(max.getZ(), chunkMinZ + SECTION_SIZE - 1);
+        if (minX > maxX || minY > maxY || minZ > maxZ) {
+            return 0;
+        }
+
+        char[] blocks = null;
+        AbstractBlockBuffer charBuffer = null;
+        if (buffer instanceof CharArrayMutableBlockBuffer) {
+            blocks = ((CharArrayMutableBlockBuffer) buffer).blocks;
+            charBuffer = (AbstractBlockBuffer) buffer;
+        } else if (buffer instanceof CharArrayImmutableBlockBuffer) {
+            blocks = ((CharArrayImmutableBlockBuffer) buffer).blocks;
+            charBuffer = (AbstractBlockBuffer) buffer;
+        }
+
+        World world = chunk.getWorld();
+        ExtendedBlockStorage[] sections = chunk.getBlockStorageArray();
+        int changed = 0;
+        // Chunk relative positions of the first changed blocks, and the sections with changes
+        int[] changedBlocks = new int[MAX_CHANGED_BLOCKS_SENT];
+        int changedSections = 0;
+        for (int y = minY; y <= maxY; y++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                int index = charBuffer == null ? 0 : charBuffer.getIndex(minX, y, z);
+                for (int x = minX; x <= maxX; x++, index++) {
+                    ExtendedBlockStorage section = sections[y >> 4];
+                    char oldId = section == null ? 0 : section.getData()[(y & 0xf) << 8 | (z & 0xf) << 4 | (x & 0xf)];
+                    char id = blocks == null ? AbstractBlockBuffer.getStateId(buffer.getBlock(x, y, z)) : blocks[index];
+                    if (id == oldId) {
+                        continue;
+                    }
+                    IBlockState state = getState(id);
+                    Block oldBlock = getState(oldId).getBlock();
+                    if (oldBlock instanceof ITileEntityProvider || state.getBlock() instanceof ITileEntityProvider) {
+                        // The tile entity keeps the position, so it can't be reused
+                        chunk.setBlockState(new BlockPos(x, y, z), state);
+                    } else {
+                        if (section == null) {
+                            // Create new section first, so that we can store the block
+                            sections[y >> 4] = section = new ExtendedBlockStorage(y >> 4 << 4, !world.provider.getHasNoSky());
+                        }
+                        section.set(x & 0xf, y & 0xf, z & 0xf, state);
+                    }
+                    if (changed < MAX_CHANGED_BLOCKS_SENT) {
+                        changedBlocks[changed] = y << 8 | (z & 0xf) << 4 | (x & 0xf);
+                    }
+                    changedSections |= 1 << (y >> 4);
+                    changed++;
+                }
+            }
+        }
+        if (changed > 0) {
+            chunk.generateSkylightMap();
+            chunk.setChunkModified();
+            if (world instanceof WorldServer) {
+                sendChanges(((WorldServer) world).getPlayerManager(), chunk, changed, changedBlocks, changedSections);
+            }
+        }
+        return changed;
+    }
+
+    private static void sendChanges(PlayerManager playerManager, Chunk chunk, int changed, int[] changedBlocks, int changedSections) {
+        int chunkMinX = chunk.xPosition << 4;
+        int chunkMinZ = chunk.zPosition << 4;
+        for (int i = 0; i < Math.min(changed, MAX_CHANGED_BLOCKS_SENT); i++) {
+            int position = changedBlocks[i];
+            playerManager.markBlockForUpdate(new BlockPos(chunkMinX | position & 0xf, position >> 8, chunkMinZ | position >> 4 & 0xf));
+        }
+        if (changed > MAX_CHANGED_BLOCKS_SENT) {
+            // The whole sections are resent now, so any block of the other changed sections is enough to include them
+            for (int y = 0; changedSections >>> y != 0; y++) {
+                if ((changedSections & 1 << y) != 0) {
+                    playerManager.markBlockForUpdate(new BlockPos(chunkMinX, y << 4, chunkMinZ));
+                }
+            }
+        }
+    }
+
+    private static IBlockState getState(char stateId) {
+        IBlockState state = (IBlockState) Block.BLOCK_STATE_IDS.getByValue(stateId);
+        return state == null ? Blocks.air.getDefaultState() : state;
+    }
+
+    private ChunkBlockCopier() {
+    }
+
+}
@@ -68,8 +68,18 @@ public void setBlock(int x, int y, int z, BlockState block) {
 
     @Override
     public ImmutableBlockBuffer getImmutableClone() {
-        // TODO implement
-        throw new UnsupportedOperationException("Not yet supported");
+        // The primer is indexed x, z, y from slowest to fastest varying, unlike buffers
+        short[] data = this.chunkPrimer.data;
+        char[] blocks = new char[data.length];
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                int primerIndex = x << 12 | z << 8;
+                for (int y = 0; y < 256; y++) {
+                    blocks[y << 8 | z << 4 | x] = (char) data[primerIndex | y];
+                }
+            }
+        }
+        return CharArrayImmutableBlockBuffer.wrap(blocks, getBlockMin(), getBlockSize());
     }
 
 
@@ -31,6 +31,7 @@
 import org.spongepowered.api.block.BlockState;
 import org.spongepowered.api.block.BlockTypes;
 import org.spongepowered.api.util.gen.ImmutableBlockBuffer;
+import org.spongepowered.common.interfaces.IMixinExtendedBlockStorage;
 
 import java.util.Arrays;
 
@@ -98,15 +99,14 @@ public void fill(BlockState block) {
             if (section == null) {
                 this.sectionArray[ySectionId] = section = createChunkSection(ySectionId);
             }
-            char[] data = section.getData();
+            char[] data = ((IMixinExtendedBlockStorage) section).getWritableData();
             Arrays.fill(data, blockStateId);
         }
     }
 
     @Override
     public ImmutableBlockBuffer getImmutableClone() {
-        // TODO implement
-        throw new UnsupportedOperationException("Not yet supported");
+        return ImmutableChunkBuffer.of(this.chunk.xPosition, this.chunk.zPosition, this.sectionArray);
     }
 
 }
@@ -0,0 +1,81 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import com.flowpowered.math.vector.Vector3i;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockTypes;
+import org.spongepowered.api.util.gen.ImmutableBlockBuffer;
+import org.spongepowered.common.interfaces.IMixinExtendedBlockStorage;
+import org.spongepowered.common.world.storage.SpongeChunkLayout;
+
+/**
+ * Immutable snapshot of the blocks of a chunk.
+ *
+ * <p>The snapshot shares the block state arrays of the chunk sections with
+ * the chunk, which copies a section's array before changing it after a
+ * snapshot was taken. Taking a snapshot therefore only copies references,
+ * while the snapshot can safely be read from any thread. Snapshots have to
+ * be taken on the thread owning the chunk.</p>
+ */
+public final class ImmutableChunkBuffer extends AbstractBlockBuffer implements ImmutableBlockBuffer {
+
+    private final char[][] sections;
+
+    private ImmutableChunkBuffer(int chunkX, int chunkZ, char[][] sections) {
+        super(new Vector3i(chunkX << 4, 0, chunkZ << 4), SpongeChunkLayout.CHUNK_SIZE);
+        this.sections = sections;
+    }
+
+    /**
+     * Takes a snapshot of the blocks of a chunk.
+     *
+     * @param chunkX The x coordinate of the chunk
+     * @param chunkZ The z coordinate of the chunk
+     * @param storageArray The sections of the chunk
+     * @return The snapshot
+     */
+    public static ImmutableChunkBuffer of(int chunkX, int chunkZ, ExtendedBlockStorage[] storageArray) {
+        char[][] sections = new char[storageArray.length][];
+        for (int i = 0; i < storageArray.length; i++) {
+            if (storageArray[i] != null) {
+                sections[i] = ((IMixinExtendedBlockStorage) storageArray[i]).getSharedData();
+            }
+        }
+        return new ImmutableChunkBuffer(chunkX, chunkZ, sections);
+    }
+
+    @Override
+    public BlockState getBlock(int x, int y, int z) {
+        checkRange(x, y, z);
+        char[] section = this.sections[y >> 4];
+        if (section == null) {
+            return BlockTypes.AIR.getDefaultState();
+        }
+        return getState(section[(y & 0xf) << 8 | (z & 0xf) << 4 | (x & 0xf)]);
+    }
+
+}
@@ -69,7 +69,7 @@ public BiomeType getBiome(Vector2i position) {
     @Override
     public BiomeType getBiome(int x, int z) {
         checkRange(x, z);
-        return (BiomeType) this.biomes[(x - this.start.getX()) | (z - this.start.getY()) << 4];
+        return (BiomeType) this.biomes[getIndex(x, z)];
     }
 
     @Override
@@ -81,7 +81,7 @@ public void setBiome(Vector2i position, BiomeType biome) {
     public void setBiome(int x, int z, BiomeType biome) {
         Preconditions.checkNotNull(biome, "biome");
         checkRange(x, z);
-        this.biomes[(x - this.start.getX()) | (z - this.start.getY()) << 4] = (BiomeGenBase) biome;
+        this.biomes[getIndex(x, z)] = (BiomeGenBase) biome;
     }
 
     @Override
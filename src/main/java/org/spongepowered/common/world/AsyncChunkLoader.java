@@ -0,0 +1,223 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.ChunkCoordIntPair;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.IChunkLoader;
+import net.minecraft.world.gen.ChunkProviderServer;
+import org.spongepowered.common.Sponge;
+import org.spongepowered.common.interfaces.IMixinAnvilChunkLoader;
+import org.spongepowered.common.interfaces.IMixinChunkProviderServer;
+import org.spongepowered.common.service.scheduler.SpongeScheduler;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+/**
+ * Loads the chunks of a {@link ChunkProviderServer} without blocking on disk
+ * I/O. The chunk data is read and decompressed on a pool of chunk I/O
+ * threads, the chunk is then loaded through the chunk provider on the main
+ * thread, which only has to build the chunk from the data and attach its
+ * entities and tile entities.
+ *
+ * <p>Requests for a chunk that is already being loaded share the same future,
+ * so their callbacks are completed in the order they were added.</p>
+ */
+public final class AsyncChunkLoader {
+
+    /**
+     * Maps the result of a chunk load to whether the chunk is loaded.
+     */
+    public static final Function<Optional<org.spongepowered.api.world.Chunk>, Boolean> IS_LOADED =
+            new Function<Optional<org.spongepowered.api.world.Chunk>, Boolean>() {
+
+                @Override
+                public Boolean apply(Optional<org.spongepowered.api.world.Chunk> input) {
+                    return input.isPresent();
+                }
+            };
+
+    private static final Object lock = new Object();
+    @Nullable private static volatile ListeningExecutorService executor;
+
+    private final ChunkProviderServer provider;
+    // Only accessed from the main thread
+    private final Map<Long, PendingLoad> pendingLoads = Maps.newHashMap();
+
+    public AsyncChunkLoader(ChunkProviderServer provider) {
+        this.provider = provider;
+    }
+
+    private static ListeningExecutorService getExecutor() {
+        ListeningExecutorService executor = AsyncChunkLoader.executor;
+        if (executor == null) {
+            synchronized (lock) {
+                executor = AsyncChunkLoader.executor;
+                if (executor == null) {
+                    int threads = Math.max(1, Sponge.getGlobalConfig().getConfig().getOptimizations().getChunkIoThreads());
+                    ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                            new ThreadFactoryBuilder().setNameFormat("Sponge-ChunkIO-%d").setDaemon(true).build());
+                    pool.allowCoreThreadTimeOut(true);
+                    AsyncChunkLoader.executor = executor = MoreExecutors.listeningDecorator(pool);
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Loads a chunk, reading it from disk on the chunk I/O threads. Can be
+     * called from any thread.
+     *
+     * @param x The chunk x coordinate
+     * @param z The chunk z coordinate
+     * @param generate Whether to generate the chunk if it was never saved
+     * @return A future completed on the main thread with the chunk, or
+     *     absent if it does not exist and should not be generated
+     */
+    public ListenableFuture<Optional<org.spongepowered.api.world.Chunk>> loadChunk(final int x, final int z, final boolean generate) {
+        if (!MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+            // Pending loads are tracked on the main thread
+            return Futures.dereference(SpongeScheduler.getInstance().runOnMainThread(Sponge.getPlugin(),
+                    new Callable<ListenableFuture<Optional<org.spongepowered.api.world.Chunk>>>() {
+
+                        @Override
+                        public ListenableFuture<Optional<org.spongepowered.api.world.Chunk>> call() {
+                            return loadChunk(x, z, generate);
+                        }
+                    }));
+        }
+
+        if (this.provider.chunkExists(x, z)) {
+            return Futures.immediateFuture(Optional.of((org.spongepowered.api.world.Chunk) this.provider.provideChunk(x, z)));
+        }
+        final Long key = ChunkCoordIntPair.chunkXZ2Int(x, z);
+        PendingLoad pending = this.pendingLoads.get(key);
+        if (pending != null) {
+            pending.generate |= generate;
+            return pending.future;
+        }
+
+        IChunkLoader chunkLoader = ((IMixinChunkProviderServer) this.provider).getChunkLoader();
+        if (!(chunkLoader instanceof IMixinAnvilChunkLoader)) {
+            // Other chunk loaders can only be used synchronously
+            return Futures.immediateFuture(Optional.fromNullable((org.spongepowered.api.world.Chunk) loadChunkNow(x, z, generate)));
+        }
+        final IMixinAnvilChunkLoader anvilChunkLoader = (IMixinAnvilChunkLoader) chunkLoader;
+
+        final PendingLoad load = new PendingLoad(generate);
+        final ListenableFuture<NBTTagCompound> read = getExecutor().submit(new Callable<NBTTagCompound>() {
+
+            @Override
+            public NBTTagCompound call() throws Exception {
+                return anvilChunkLoader.readChunkNbt(x, z);
+            }
+        });
+        anvilChunkLoader.addPendingRead(x, z, read);
+        this.pendingLoads.put(key, load);
+        read.addListener(new Runnable() {
+
+            @Override
+            public void run() {
+                AsyncChunkLoader.this.pendingLoads.remove(key);
+                try {
+                    Chunk chunk = finishLoad(anvilChunkLoader, x, z, load.generate, read);
+                    load.future.set(Optional.fromNullable((org.spongepowered.api.world.Chunk) chunk));
+                } catch (Throwable e) {
+                    load.future.setException(e);
+                }
+            }
+        }, SpongeScheduler.getInstance().getMainThreadExecutor(Sponge.getPlugin()));
+        return load.future;
+    }
+
+    @Nullable
+    private Chunk finishLoad(IMixinAnvilChunkLoader chunkLoader, int x, int z, boolean generate, ListenableFuture<NBTTagCompound> read)
+            throws ExecutionException, InterruptedException {
+        if (this.provider.chunkExists(x, z)) {
+            // The chunk was loaded synchronously meanwhile, which already used the read
+            chunkLoader.removePendingRead(x, z, read);
+            return this.provider.provideChunk(x, z);
+        }
+        try {
+            if (read.get() == null && !generate) {
+                chunkLoader.removePendingRead(x, z, read);
+                return null;
+            }
+        } catch (ExecutionException e) {
+            chunkLoader.removePendingRead(x, z, read);
+            if (!generate) {
+                throw e;
+            }
+        }
+        // Uses the data that was read unless the chunk was saved meanwhile
+        return this.provider.loadChunk(x, z);
+    }
+
+    @Nullable
+    private Chunk loadChunkNow(int x, int z, boolean generate) {
+        if (generate) {
+            return this.provider.loadChunk(x, z);
+        }
+        // The chunk provider would generate missing chunks
+        IChunkLoader chunkLoader = ((IMixinChunkProviderServer) this.provider).getChunkLoader();
+        try {
+            Chunk chunk = chunkLoader == null ? null : chunkLoader.loadChunk(this.provider.worldObj, x, z);
+            return chunk == null ? null : this.provider.loadChunk(x, z);
+        } catch (Exception e) {
+            Sponge.getLogger().error("Failed to load chunk (" + x + ", " + z + ")", e);
+            return null;
+        }
+    }
+
+    private static final class PendingLoad {
+
+        final SettableFuture<Optional<org.spongepowered.api.world.Chunk>> future = SettableFuture.create();
+        boolean generate;
+
+        PendingLoad(boolean generate) {
+            this.generate = generate;
+        }
+    }
+
+}
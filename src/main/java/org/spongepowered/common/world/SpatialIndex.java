@@ -0,0 +1,303 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Predicate;
+import gnu.trove.map.hash.TLongObjectHashMap;
+
+import java.util.Collection;
+
+import javax.annotation.Nullable;
+
+/**
+ * An index of values by their position, bucketed by the 16x16x16 block
+ * section they are in.
+ *
+ * <p>Region queries only visit the buckets of the sections overlapping the
+ * queried region, so they cost time in the number of values near the region
+ * rather than the number of values in the index. Adding, moving and removing
+ * a value is constant time, and moving a value within its section does not
+ * touch the buckets at all.</p>
+ *
+ * <p>The index is not thread safe.</p>
+ *
+ * @param <T> The type of value held by the index
+ */
+public final class SpatialIndex<T> {
+
+    private static final int SECTION_SHIFT = 4;
+    private static final int INITIAL_BUCKET_CAPACITY = 4;
+
+    private final TLongObjectHashMap<Bucket<T>> buckets = new TLongObjectHashMap<Bucket<T>>();
+    private int size;
+
+    static int toSection(double coordinate) {
+        return (int) Math.floor(coordinate) >> SECTION_SHIFT;
+    }
+
+    static long pack(int sectionX, int sectionY, int sectionZ) {
+        return ((long) sectionX & 0x3FFFFFF) << 38 | ((long) sectionY & 0xFFF) << 26 | (long) sectionZ & 0x3FFFFFF;
+    }
+
+    /**
+     * Gets the number of values in the index.
+     *
+     * @return The number of values
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Adds a value to the index.
+     *
+     * @param value The value
+     * @param x The x coordinate of the value
+     * @param y The y coordinate of the value
+     * @param z The z coordinate of the value
+     * @return The entry of the value, used to move or remove it
+     */
+    public Entry<T> add(T value, double x, double y, double z) {
+        checkNotNull(value, "value");
+        Entry<T> entry = new Entry<T>(this, value);
+        entry.x = x;
+        entry.y = y;
+        entry.z = z;
+        file(entry, pack(toSection(x), toSection(y), toSection(z)));
+        this.size++;
+        return entry;
+    }
+
+    void move(Entry<T> entry, double x, double y, double z) {
+        entry.x = x;
+        entry.y = y;
+        entry.z = z;
+        long key = pack(toSection(x), toSection(y), toSection(z));
+        if (key != entry.key) {
+            unfile(entry);
+            file(entry, key);
+        }
+    }
+
+    void remove(Entry<T> entry) {
+        unfile(entry);
+        entry.bucket = null;
+        this.size--;
+    }
+
+    private void file(Entry<T> entry, long key) {
+        Bucket<T> bucket = this.buckets.get(key);
+        if (bucket == null) {
+            bucket = new Bucket<T>(key);
+            this.buckets.put(key, bucket);
+        }
+        bucket.add(entry);
+        entry.key = key;
+    }
+
+    private void unfile(Entry<T> entry) {
+        Bucket<T> bucket = entry.bucket;
+        bucket.remove(entry);
+        if (bucket.size == 0) {
+            this.buckets.remove(bucket.key);
+        }
+    }
+
+    /**
+     * Collects the values of a type whose position is within a box.
+     *
+     * @param minX The minimum x coordinate of the box
+     * @param minY The minimum y coordinate of the box
+     * @param minZ The minimum z coordinate of the box
+     * @param maxX The maximum x coordinate of the box
+     * @param maxY The maximum y coordinate of the box
+     * @param maxZ The maximum z coordinate of the box
+     * @param type The type of values to collect
+     * @param filter A filter for the values to collect, if any
+     * @param out The collection to add the values to
+     * @param <V> The type of values to collect
+     */
+    public <V> void query(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Class<V> type,
+            @Nullable Predicate<? super V> filter, Collection<? super V> out) {
+        collect(minX, minY, minZ, maxX, maxY, maxZ, 0, 0, 0, -1, type, filter, out);
+    }
+
+    /**
+     * Collects the values of a type whose position is within a sphere.
+     *
+     * @param x The x coordinate of the center of the sphere
+     * @param y The y coordinate of the center of the sphere
+     * @param z The z coordinate of the center of the sphere
+     * @param radius The radius of the sphere
+     * @param type The type of values to collect
+     * @param filter A filter for the values to collect, if any
+     * @param out The collection to add the values to
+     * @param <V> The type of values to collect
+     */
+    public <V> void queryRadius(double x, double y, double z, double radius, Class<V> type, @Nullable Predicate<? super V> filter,
+            Collection<? super V> out) {
+        checkArgument(radius >= 0, "Radius cannot be negative");
+        collect(x - radius, y - radius, z - radius, x + radius, y + radius, z + radius, x, y, z, radius * radius, type, filter, out);
+    }
+
+    private <V> void collect(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, double x, double y, double z,
+            double radiusSquared, Class<V> type, @Nullable Predicate<? super V> filter, Collection<? super V> out) {
+        int minSectionX = toSection(minX);
+        int minSectionY = toSection(minY);
+        int minSectionZ = toSection(minZ);
+        int maxSectionX = toSection(maxX);
+        int maxSectionY = toSection(maxY);
+        int maxSectionZ = toSection(maxZ);
+        long sections = (long) (maxSectionX - minSectionX + 1) * (maxSectionY - minSectionY + 1) * (maxSectionZ - minSectionZ + 1);
+
+        if (sections > this.buckets.size()) {
+            // Cheaper to look at every bucket than at every section of the region
+            for (Bucket<T> bucket : this.buckets.valueCollection()) {
+                bucket.collect(minX, minY, minZ, maxX, maxY, maxZ, x, y, z, radiusSquared, type, filter, out);
+            }
+            return;
+        }
+        for (int sectionX = minSectionX; sectionX <= maxSectionX; sectionX++) {
+            for (int sectionZ = minSectionZ; sectionZ <= maxSectionZ; sectionZ++) {
+                for (int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++) {
+                    Bucket<T> bucket = this.buckets.get(pack(sectionX, sectionY, sectionZ));
+                    if (bucket != null) {
+                        bucket.collect(minX, minY, minZ, maxX, maxY, maxZ, x, y, z, radiusSquared, type, filter, out);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The position of a value in a {@link SpatialIndex}.
+     *
+     * @param <T> The type of value held by the index
+     */
+    public static final class Entry<T> {
+
+        private final SpatialIndex<T> index;
+        private final T value;
+        double x;
+        double y;
+        double z;
+        long key;
+        @Nullable Bucket<T> bucket;
+        int slot;
+
+        Entry(SpatialIndex<T> index, T value) {
+            this.index = index;
+            this.value = value;
+        }
+
+        public T getValue() {
+            return this.value;
+        }
+
+        /**
+         * Updates the position of the value.
+         *
+         * @param x The new x coordinate
+         * @param y The new y coordinate
+         * @param z The new z coordinate
+         */
+        public void update(double x, double y, double z) {
+            if (this.bucket != null) {
+                this.index.move(this, x, y, z);
+            }
+        }
+
+        /**
+         * Removes the value from the index, if it is still in it.
+         */
+        public void remove() {
+            if (this.bucket != null) {
+                this.index.remove(this);
+            }
+        }
+
+    }
+
+    static final class Bucket<T> {
+
+        final long key;
+        @SuppressWarnings("unchecked")
+        Entry<T>[] entries = new Entry[INITIAL_BUCKET_CAPACITY];
+        int size;
+
+        Bucket(long key) {
+            this.key = key;
+        }
+
+        void add(Entry<T> entry) {
+            if (this.size == this.entries.length) {
+                @SuppressWarnings("unchecked")
+                Entry<T>[] entries = new Entry[this.size * 2];
+                System.arraycopy(this.entries, 0, entries, 0, this.size);
+                this.entries = entries;
+            }
+            entry.bucket = this;
+            entry.slot = this.size;
+            this.entries[this.size++] = entry;
+        }
+
+        void remove(Entry<T> entry) {
+            // Fill the gap with the last entry
+            Entry<T> last = this.entries[--this.size];
+            this.entries[entry.slot] = last;
+            last.slot = entry.slot;
+            this.entries[this.size] = null;
+        }
+
+        <V> void collect(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, double x, double y, double z,
+                double radiusSquared, Class<V> type, @Nullable Predicate<? super V> filter, Collection<? super V> out) {
+            for (int i = 0; i < this.size; i++) {
+                Entry<T> entry = this.entries[i];
+                if (entry.x < minX || entry.y < minY || entry.z < minZ || entry.x > maxX || entry.y > maxY || entry.z > maxZ) {
+                    continue;
+                }
+                if (radiusSquared >= 0) {
+                    double dx = entry.x - x;
+                    double dy = entry.y - y;
+                    double dz = entry.z - z;
+                    if (dx * dx + dy * dy + dz * dz > radiusSquared) {
+                        continue;
+                    }
+                }
+                if (type.isInstance(entry.value)) {
+                    V value = type.cast(entry.value);
+                    if (filter == null || filter.apply(value)) {
+                        out.add(value);
+                    }
+                }
+            }
+        }
+
+    }
+
+}
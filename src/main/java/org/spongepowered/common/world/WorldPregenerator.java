@@ -0,0 +1,377 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.BlockPos;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.gen.ChunkProviderServer;
+import org.spongepowered.api.service.scheduler.Task;
+import org.spongepowered.common.Sponge;
+import org.spongepowered.common.interfaces.IMixinChunkProviderServer;
+import org.spongepowered.common.world.gen.CustomChunkProviderGenerate;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Generates all chunks within a square around the spawn of a world, walking
+ * outwards in a spiral. Chunks are loaded through the chunk provider of the
+ * world, so newly generated chunks are populated and passed to the generator
+ * populators of the world like any other chunk.
+ *
+ * <p>Work is capped per tick, both by a number of chunks and by time. Chunks
+ * loaded by the pregenerator are unloaded again once the spiral is three
+ * rings further out, as they are no longer needed to populate their
+ * neighbours. The
+ * server unloads a limited number of dropped chunks each tick and none while
+ * level saving is disabled, so the pregenerator waits while too many dropped
+ * chunks are still loaded or saving is off. The
+ * progress is saved in the world directory, starting a pregenerator with the
+ * same radius again resumes from there.</p>
+ */
+public final class WorldPregenerator implements Runnable {
+
+    private static final String PROGRESS_FILE = "pregen_sponge.dat";
+    // Keep the server ticking while pregenerating
+    private static final long TICK_BUDGET_NANOS = 25000000L;
+    private static final int SAVE_INTERVAL_TICKS = 1200;
+    /**
+     * The maximum number of chunks to generate per tick, the number of
+     * dropped chunks the server unloads per tick.
+     */
+    public static final int MAX_CHUNKS_PER_TICK = 100;
+    // Stop loading chunks until the server caught up with unloading
+    private static final int MAX_DROPPED_CHUNKS = 4 * MAX_CHUNKS_PER_TICK;
+    // Only accessed from the main thread
+    private static final Map<WorldServer, WorldPregenerator> running = Maps.newHashMap();
+
+    private final WorldServer world;
+    private final int centerX;
+    private final int centerZ;
+    private final int radius;
+    private final int chunksPerTick;
+    private final long total;
+    private final Queue<long[]> loaded = new ArrayDeque<long[]>();
+    private final Spiral spiral = new Spiral();
+    private final long startIndex;
+    private long startTime;
+    private int ticksSinceSave;
+    private boolean paused;
+    private Task task;
+
+    private WorldPregenerator(WorldServer world, int centerX, int centerZ, int radius, int chunksPerTick, long startIndex) {
+        this.world = world;
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.radius = radius;
+        this.chunksPerTick = chunksPerTick;
+        this.total = (2L * radius + 1) * (2L * radius + 1);
+        this.startIndex = startIndex;
+        this.spiral.skip(startIndex);
+    }
+
+    /**
+     * Gets the pregenerator currently running in the given world.
+     *
+     * @param world The world
+     * @return The pregenerator, if running
+     */
+    public static Optional<WorldPregenerator> get(WorldServer world) {
+        return Optional.fromNullable(running.get(world));
+    }
+
+    /**
+     * Starts pregenerating the given world, resuming from the saved progress
+     * if the world was pregenerated with the same radius before.
+     *
+     * @param world The world
+     * @param radius The radius around the spawn chunk, in chunks
+     * @param chunksPerTick The maximum number of chunks to generate per tick
+     * @return The pregenerator
+     * @throws IllegalStateException If the world is already pregenerating
+     *     or level saving is disabled
+     */
+    public static WorldPregenerator start(WorldServer world, int radius, int chunksPerTick) {
+        Preconditions.checkArgument(radius >= 0, "radius must not be negative");
+        Preconditions.checkArgument(chunksPerTick > 0 && chunksPerTick <= MAX_CHUNKS_PER_TICK,
+                "chunksPerTick must be between 1 and " + MAX_CHUNKS_PER_TICK);
+        Preconditions.checkState(!running.containsKey(world), "World is already being pregenerated");
+        Preconditions.checkState(!world.disableLevelSaving, "Level saving is disabled");
+
+        BlockPos spawn = world.getSpawnPoint();
+        int centerX = spawn.getX() >> 4;
+        int centerZ = spawn.getZ() >> 4;
+        long startIndex = 0;
+        NBTTagCompound progress = readProgress(world);
+        if (progress != null && progress.getInteger("Radius") == radius) {
+            centerX = progress.getInteger("CenterX");
+            centerZ = progress.getInteger("CenterZ");
+            startIndex = progress.getLong("Index");
+        }
+
+        WorldPregenerator pregenerator = new WorldPregenerator(world, centerX, centerZ, radius, chunksPerTick, startIndex);
+        pregenerator.startTime = System.nanoTime();
+        pregenerator.task = Sponge.getGame().getScheduler().getTaskBuilder()
+                .name("Sponge-Pregen-" + world.getSaveHandler().getWorldDirectoryName())
+                .execute(pregenerator)
+                .interval(1)
+                .submit(Sponge.getPlugin());
+        running.put(world, pregenerator);
+        return pregenerator;
+    }
+
+    /**
+     * Stops pregenerating, saving the progress so it can be resumed later.
+     */
+    public void stop() {
+        finish(false);
+    }
+
+    @Override
+    public void run() {
+        if (DimensionManager.getWorldFromDimId(this.world.provider.getDimensionId()) != this.world) {
+            // The world was unloaded
+            finish(false);
+            return;
+        }
+        ChunkProviderServer provider = this.world.theChunkProviderServer;
+        // Dropped chunks are not unloaded while saving is off, so they would pile up
+        boolean paused = this.world.disableLevelSaving;
+        if (paused != this.paused) {
+            this.paused = paused;
+            Sponge.getLogger().info((paused ? "Paused" : "Resumed") + " pregenerating world "
+                    + this.world.getSaveHandler().getWorldDirectoryName() + (paused ? " while level saving is disabled" : ""));
+        }
+        if (paused || provider instanceof IMixinChunkProviderServer
+                && ((IMixinChunkProviderServer) provider).getDroppedChunkCount() > MAX_DROPPED_CHUNKS) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + TICK_BUDGET_NANOS;
+        for (int i = 0; i < this.chunksPerTick && this.spiral.index < this.total; i++) {
+            int x = this.centerX + this.spiral.x;
+            int z = this.centerZ + this.spiral.z;
+            int ring = this.spiral.getRing();
+            if (!provider.chunkExists(x, z)) {
+                provider.loadChunk(x, z);
+                this.loaded.add(new long[] {x, z, ring});
+            }
+            this.spiral.next();
+            if (System.nanoTime() > deadline) {
+                break;
+            }
+        }
+
+        // Chunks being populated only need chunks of their own and the adjacent rings
+        int ring = this.spiral.getRing();
+        while (!this.loaded.isEmpty() && this.loaded.peek()[2] < ring - 2) {
+            long[] chunk = this.loaded.poll();
+            provider.dropChunk((int) chunk[0], (int) chunk[1]);
+        }
+
+        if (this.spiral.index >= this.total) {
+            finish(true);
+            return;
+        }
+
+        if (provider.serverChunkGenerator instanceof CustomChunkProviderGenerate && provider instanceof IMixinChunkProviderServer) {
+            // Let the chunk generation threads work on the chunks of the next tick meanwhile
+            Spiral ahead = this.spiral.copy();
+            for (int i = 0; i < this.chunksPerTick && ahead.index < this.total; i++, ahead.next()) {
+                int x = this.centerX + ahead.x;
+                int z = this.centerZ + ahead.z;
+                if (!((IMixinChunkProviderServer) provider).isChunkGenerated(x, z)) {
+                    ((CustomChunkProviderGenerate) provider.serverChunkGenerator).prefetchChunk(x, z);
+                }
+            }
+        }
+
+        if (++this.ticksSinceSave >= SAVE_INTERVAL_TICKS) {
+            this.ticksSinceSave = 0;
+            saveProgress();
+        }
+    }
+
+    private void finish(boolean completed) {
+        this.task.cancel();
+        running.remove(this.world);
+        while (!this.loaded.isEmpty()) {
+            long[] chunk = this.loaded.poll();
+            this.world.theChunkProviderServer.dropChunk((int) chunk[0], (int) chunk[1]);
+        }
+        if (completed) {
+            File directory = this.world.getSaveHandler().getWorldDirectory();
+            new File(directory, PROGRESS_FILE).delete();
+            new File(directory, PROGRESS_FILE + "_old").delete();
+            Sponge.getLogger().info("Finished pregenerating " + this.total + " chunks of world "
+                    + this.world.getSaveHandler().getWorldDirectoryName());
+        } else {
+            saveProgress();
+        }
+    }
+
+    public WorldServer getWorld() {
+        return this.world;
+    }
+
+    public int getRadius() {
+        return this.radius;
+    }
+
+    /**
+     * Gets the number of chunks that have been visited, including those
+     * visited before the pregenerator was resumed.
+     *
+     * @return The number of chunks
+     */
+    public long getProgress() {
+        return this.spiral.index;
+    }
+
+    public long getTotal() {
+        return this.total;
+    }
+
+    /**
+     * Gets the average number of chunks visited per second since the
+     * pregenerator was started or resumed.
+     *
+     * @return The chunks per second
+     */
+    public double getChunksPerSecond() {
+        long elapsed = System.nanoTime() - this.startTime;
+        return elapsed <= 0 ? 0 : (this.spiral.index - this.startIndex) * 1e9 / elapsed;
+    }
+
+    /**
+     * Estimates the remaining time from the current rate.
+     *
+     * @return The remaining seconds, or -1 if unknown
+     */
+    public long getEstimatedSecondsRemaining() {
+        double rate = getChunksPerSecond();
+        return rate <= 0 ? -1 : (long) ((this.total - this.spiral.index) / rate);
+    }
+
+    private void saveProgress() {
+        // Chunks of the last rings may not have been populated and saved yet
+        int ring = Math.max(0, this.spiral.getRing() - 2);
+        long index = ring == 0 ? 0 : (2L * ring - 1) * (2L * ring - 1);
+
+        NBTTagCompound compound = new NBTTagCompound();
+        compound.setInteger("Radius", this.radius);
+        compound.setInteger("CenterX", this.centerX);
+        compound.setInteger("CenterZ", this.centerZ);
+        compound.setLong("Index", index);
+        File directory = this.world.getSaveHandler().getWorldDirectory();
+        File newFile = new File(directory, PROGRESS_FILE + "_new");
+        File oldFile = new File(directory, PROGRESS_FILE + "_old");
+        File file = new File(directory, PROGRESS_FILE);
+        try {
+            // Keep the previous progress until the new one is written completely
+            CompressedStreamTools.writeCompressed(compound, new FileOutputStream(newFile));
+            if (oldFile.exists()) {
+                oldFile.delete();
+            }
+            file.renameTo(oldFile);
+            if (!newFile.renameTo(file)) {
+                throw new IOException("Failed to rename " + newFile + " to " + file);
+            }
+        } catch (IOException e) {
+            Sponge.getLogger().error("Failed to save pregeneration progress", e);
+        }
+    }
+
+    private static NBTTagCompound readProgress(WorldServer world) {
+        File directory = world.getSaveHandler().getWorldDirectory();
+        for (String name : new String[] {PROGRESS_FILE, PROGRESS_FILE + "_old"}) {
+            File file = new File(directory, name);
+            if (!file.exists()) {
+                continue;
+            }
+            try {
+                return CompressedStreamTools.readCompressed(new FileInputStream(file));
+            } catch (IOException e) {
+                Sponge.getLogger().error("Failed to read pregeneration progress from " + file, e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Walks a square spiral outwards from the origin. After (2r+1)^2 steps,
+     * all positions within r of the origin have been visited.
+     */
+    static final class Spiral {
+
+        long index;
+        int x;
+        int z;
+        private int dx = 0;
+        private int dz = -1;
+
+        void next() {
+            if (this.x == this.z || this.x < 0 && this.x == -this.z || this.x > 0 && this.x == 1 - this.z) {
+                int t = this.dx;
+                this.dx = -this.dz;
+                this.dz = t;
+            }
+            this.x += this.dx;
+            this.z += this.dz;
+            this.index++;
+        }
+
+        void skip(long steps) {
+            for (long i = 0; i < steps; i++) {
+                next();
+            }
+        }
+
+        int getRing() {
+            return Math.max(Math.abs(this.x), Math.abs(this.z));
+        }
+
+        Spiral copy() {
+            Spiral copy = new Spiral();
+            copy.index = this.index;
+            copy.x = this.x;
+            copy.z = this.z;
+            copy.dx = this.dx;
+            copy.dz = this.dz;
+            return copy;
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.gen;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.spongepowered.common.Sponge;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+/**
+ * Holds the pool of worker threads shared by all worlds to generate chunks
+ * off the main thread.
+ */
+final class ChunkGenerationExecutor {
+
+    private static final Object lock = new Object();
+    private static volatile boolean initialized;
+    @Nullable private static ListeningExecutorService executor;
+
+    private ChunkGenerationExecutor() {
+    }
+
+    /**
+     * Gets the executor generating chunks, creating it on first use.
+     *
+     * @return The executor, or null if chunks should be generated on the
+     *     main thread
+     */
+    @Nullable
+    static ListeningExecutorService get() {
+        if (!initialized) {
+            synchronized (lock) {
+                if (!initialized) {
+                    int threads = Sponge.getGlobalConfig().getConfig().getOptimizations().getChunkGenerationThreads();
+                    if (threads > 0) {
+                        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                                new LinkedBlockingQueue<Runnable>(),
+                                new ThreadFactoryBuilder().setNameFormat("Sponge-ChunkGen-%d").setDaemon(true).build());
+                        pool.allowCoreThreadTimeOut(true);
+                        executor = MoreExecutors.listeningDecorator(pool);
+                    }
+                    initialized = true;
+                }
+            }
+        }
+        return executor;
+    }
+
+}
@@ -26,10 +26,15 @@
 
 import com.flowpowered.math.vector.Vector2i;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import net.minecraft.block.BlockFalling;
 import net.minecraft.entity.EnumCreatureType;
 import net.minecraft.util.BlockPos;
 import net.minecraft.util.IProgressUpdate;
+import net.minecraft.world.ChunkCoordIntPair;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.BiomeGenBase;
 import net.minecraft.world.biome.BiomeGenBase.SpawnListEntry;
@@ -39,24 +44,53 @@
 import net.minecraft.world.gen.ChunkProviderGenerate;
 import org.spongepowered.api.world.gen.BiomeGenerator;
 import org.spongepowered.api.world.gen.GeneratorPopulator;
+import org.spongepowered.common.Sponge;
+import org.spongepowered.common.interfaces.IMixinChunkProviderServer;
+import org.spongepowered.common.util.gen.ByteArrayImmutableBiomeBuffer;
 import org.spongepowered.common.util.gen.ByteArrayMutableBiomeBuffer;
 import org.spongepowered.common.util.gen.ChunkPrimerBuffer;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Similar class to {@link ChunkProviderGenerate}, but instead gets its blocks
  * from a custom chunk generator.
+ *
+ * <p>If chunk generation threads are configured, the biome and terrain stages
+ * of chunks next to newly generated chunks are run ahead of time on a worker
+ * pool, so that only assembling the chunk and calculating its light is left
+ * for the main thread once the chunk is actually requested.</p>
  */
 public final class CustomChunkProviderGenerate implements IChunkProvider {
 
     private static final Vector2i CHUNK_AREA = new Vector2i(16, 16);
+    private static final int MAX_PENDING_CHUNKS = 256;
+    // Chunks generated ahead of time, but not requested within this many ticks are discarded
+    private static final int PENDING_CHUNK_EXPIRY_TICKS = 1200;
 
     final GeneratorPopulator generatorPopulator;
     final BiomeGenerator biomeGenerator;
     private final World world;
-    private final ByteArrayMutableBiomeBuffer cachedBiomes;
+    private final ThreadLocal<ByteArrayMutableBiomeBuffer> cachedBiomes = new ThreadLocal<ByteArrayMutableBiomeBuffer>() {
+
+        @Override
+        protected ByteArrayMutableBiomeBuffer initialValue() {
+            // Make initially empty biome cache
+            ByteArrayMutableBiomeBuffer biomes = new ByteArrayMutableBiomeBuffer(Vector2i.ZERO, CHUNK_AREA);
+            biomes.detach();
+            return biomes;
+        }
+    };
+    // Biome generators aren't thread safe unless configured otherwise, the vanilla ones share caches
+    private final boolean asyncBiomes;
+    // Only accessed from the main thread
+    private final Map<Long, PendingChunk> pendingChunks = Maps.newHashMap();
+    private long lastExpiryTick;
 
     /**
      * Gets the chunk generator from the given generator populator and biome
@@ -82,10 +116,8 @@ private CustomChunkProviderGenerate(World world, GeneratorPopulator generatorPop
         this.world = Preconditions.checkNotNull(world);
         this.generatorPopulator = Preconditions.checkNotNull(generatorPopulator);
         this.biomeGenerator = Preconditions.checkNotNull(biomeGenerator);
-
-        // Make initially empty biome cache
-        this.cachedBiomes = new ByteArrayMutableBiomeBuffer(Vector2i.ZERO, CHUNK_AREA);
-        this.cachedBiomes.detach();
+        this.asyncBiomes = Sponge.getGlobalConfig().getConfig().getOptimizations().useChunkGenerationAsyncBiomes()
+                && !(biomeGenerator instanceof SpongeBiomeGenerator);
     }
 
     @Override
@@ -126,25 +158,145 @@ public void recreateStructures(Chunk chunk, int chunkX, int chunkZ) {
 
     @Override
     public Chunk provideChunk(int chunkX, int chunkZ) {
-
-        // Generate biomes
-        this.cachedBiomes.reuse(new Vector2i(chunkX << 4, chunkZ << 4));
-        this.biomeGenerator.generateBiomes(this.cachedBiomes);
-
-        // Generate blocks
-        ChunkPrimer chunkprimer = new ChunkPrimer();
-        ChunkPrimerBuffer buffer = new ChunkPrimerBuffer(chunkprimer, chunkX, chunkZ);
-        this.generatorPopulator.populate((org.spongepowered.api.world.World) this.world, buffer, this.cachedBiomes.getImmutableClone());
+        GeneratedChunk generated = null;
+        PendingChunk pending = this.pendingChunks.remove(ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ));
+        // Chunks still queued behind other prefetched chunks are generated right away instead of waiting for them
+        if (pending != null && !pending.claim()) {
+            try {
+                generated = Futures.getUnchecked(pending.future);
+            } catch (RuntimeException e) {
+                Sponge.getLogger().error("Failed to generate chunk (" + chunkX + ", " + chunkZ + ") ahead of time, retrying on the main thread", e);
+            }
+        }
+        if (generated == null) {
+            generated = generate(chunkX, chunkZ, generateBiomes(chunkX, chunkZ));
+        }
 
         // Assemble chunk
-        Chunk chunk = new Chunk(this.world, chunkprimer, chunkX, chunkZ);
+        Chunk chunk = new Chunk(this.world, generated.primer, chunkX, chunkZ);
         byte[] biomeArray = chunk.getBiomeArray();
-        System.arraycopy(this.cachedBiomes.detach(), 0, biomeArray, 0, biomeArray.length);
+        System.arraycopy(generated.biomes, 0, biomeArray, 0, biomeArray.length);
         chunk.generateSkylightMap();
 
+        // Chunks next to a newly generated chunk are likely to be requested soon
+        IChunkProvider provider = this.world.getChunkProvider();
+        if (provider instanceof IMixinChunkProviderServer) {
+            for (int x = chunkX - 1; x <= chunkX + 1; x++) {
+                for (int z = chunkZ - 1; z <= chunkZ + 1; z++) {
+                    if ((x != chunkX || z != chunkZ) && !((IMixinChunkProviderServer) provider).isChunkGenerated(x, z)) {
+                        prefetchChunk(x, z);
+                    }
+                }
+            }
+        }
+
         return chunk;
     }
 
+    /**
+     * Starts generating the blocks of the given chunk on the chunk generation
+     * threads, so that {@link #provideChunk(int, int)} only has to assemble
+     * the chunk. The biomes are generated right away on the calling thread,
+     * unless asynchronous biome generation is enabled in the config. Must be called from the main thread, and only
+     * for chunks that were never generated.
+     *
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return True if the chunk is being generated ahead of time, false if
+     *     no chunk generation threads are configured or too many chunks are
+     *     pending already
+     */
+    public boolean prefetchChunk(final int chunkX, final int chunkZ) {
+        ListeningExecutorService executor = ChunkGenerationExecutor.get();
+        if (executor == null) {
+            return false;
+        }
+        Long key = ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ);
+        if (this.pendingChunks.containsKey(key)) {
+            return true;
+        }
+        if (this.pendingChunks.size() >= MAX_PENDING_CHUNKS) {
+            return false;
+        }
+
+        final byte[] biomes = this.asyncBiomes ? null : generateBiomes(chunkX, chunkZ);
+        final PendingChunk pending = new PendingChunk(this.world.getTotalWorldTime());
+        pending.future = executor.submit(new Callable<GeneratedChunk>() {
+
+            @Override
+            public GeneratedChunk call() {
+                if (!pending.claim()) {
+                    // Generated on the main thread already, or expired
+                    return null;
+                }
+                return generate(chunkX, chunkZ, biomes != null ? biomes : generateBiomes(chunkX, chunkZ));
+            }
+        });
+        this.pendingChunks.put(key, pending);
+        return true;
+    }
+
+    private void expirePendingChunks() {
+        long now = this.world.getTotalWorldTime();
+        if (this.pendingChunks.isEmpty() || now - this.lastExpiryTick < 20) {
+            return;
+        }
+        this.lastExpiryTick = now;
+        for (Iterator<PendingChunk> it = this.pendingChunks.values().iterator(); it.hasNext();) {
+            PendingChunk pending = it.next();
+            if (now - pending.tick > PENDING_CHUNK_EXPIRY_TICKS) {
+                pending.claim();
+                pending.future.cancel(false);
+                it.remove();
+            }
+        }
+    }
+
+    private byte[] generateBiomes(int chunkX, int chunkZ) {
+        ByteArrayMutableBiomeBuffer biomes = this.cachedBiomes.get();
+        biomes.reuse(new Vector2i(chunkX << 4, chunkZ << 4));
+        this.biomeGenerator.generateBiomes(biomes);
+        return biomes.detach().clone();
+    }
+
+    GeneratedChunk generate(int chunkX, int chunkZ, byte[] biomes) {
+        ChunkPrimer chunkprimer = new ChunkPrimer();
+        ChunkPrimerBuffer buffer = new ChunkPrimerBuffer(chunkprimer, chunkX, chunkZ);
+        this.generatorPopulator.populate((org.spongepowered.api.world.World) this.world, buffer,
+                new ByteArrayImmutableBiomeBuffer(biomes, new Vector2i(chunkX << 4, chunkZ << 4), CHUNK_AREA));
+        return new GeneratedChunk(chunkprimer, biomes);
+    }
+
+    /**
+     * The result of the biome and terrain stages of a chunk.
+     */
+    static final class GeneratedChunk {
+
+        final ChunkPrimer primer;
+        final byte[] biomes;
+
+        GeneratedChunk(ChunkPrimer primer, byte[] biomes) {
+            this.primer = primer;
+            this.biomes = biomes;
+        }
+    }
+
+    private static final class PendingChunk {
+
+        final long tick;
+        // Set by whichever of the worker and the main thread starts generating the chunk first
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        ListenableFuture<GeneratedChunk> future;
+
+        PendingChunk(long tick) {
+            this.tick = tick;
+        }
+
+        boolean claim() {
+            return this.claimed.compareAndSet(false, true);
+        }
+    }
+
     // Methods below are simply mirrors of the methods in ChunkProviderGenerate
 
     @Override
@@ -178,6 +330,8 @@ public void saveExtraData() {
 
     @Override
     public boolean unloadQueuedChunks() {
+        // Called every tick by the server chunk provider
+        expirePendingChunks();
         return false;
     }
 
@@ -26,19 +26,23 @@
 
 import com.flowpowered.math.vector.Vector2i;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
 import net.minecraft.util.BlockPos;
+import net.minecraft.world.ChunkCoordIntPair;
 import net.minecraft.world.biome.BiomeGenBase;
 import net.minecraft.world.biome.WorldChunkManager;
 import net.minecraft.world.gen.layer.IntCache;
-import org.spongepowered.api.util.gen.MutableBiomeBuffer;
 import org.spongepowered.api.world.gen.BiomeGenerator;
 import org.spongepowered.common.util.gen.ByteArrayMutableBiomeBuffer;
-import org.spongepowered.common.util.gen.ObjectArrayMutableBiomeBuffer;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
+import javax.annotation.Nullable;
+
 /**
  * Implementation of {@link WorldChunkManager} (bad name for the class that is
  * responsible for where the biomes appear) based on a {@link BiomeGenerator}.
@@ -46,13 +50,54 @@
  * <p>This class does the opposite of {@link SpongeBiomeGenerator}, that class
  * wraps a world chunk manager so that it is usable as a {@link BiomeGenerator}
  * .</p>
+ *
+ * <p>Biomes are generated in 16x16 areas aligned to chunks, which are kept in
+ * a bounded cache that evicts the least recently used areas first, as the
+ * same areas are queried over and over during terrain generation and
+ * structure placement. If the biome generator supports the
+ * {@link ScaledBiomeGenerator} contract, the zoomed out biomes are generated
+ * and cached separately at their own resolution.</p>
+ *
+ * <p>Vanilla biome generators never end up here, {@link #of} returns their
+ * world chunk manager, which generates the zoomed out biomes itself.</p>
  */
 public final class CustomWorldChunkManager extends WorldChunkManager {
 
-    private static final Vector2i CACHED_AREA_SIZE = new Vector2i(40, 40);
+    private static final int CACHE_SIZE = 1024;
+    private static final Vector2i CACHED_AREA_SIZE = new Vector2i(16, 16);
 
-    private final ByteArrayMutableBiomeBuffer areaForGeneration = new ByteArrayMutableBiomeBuffer(Vector2i.ZERO, CACHED_AREA_SIZE);
     final BiomeGenerator biomeGenerator;
+    @Nullable private final ScaledBiomeGenerator scaledBiomeGenerator;
+    // Biome ids of 16x16 areas by the chunk they are in
+    private final LoadingCache<Long, byte[]> biomeCache = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .recordStats()
+            .build(new CacheLoader<Long, byte[]>() {
+
+                @Override
+                public byte[] load(Long key) {
+                    int chunkX = (int) key.longValue();
+                    int chunkZ = (int) (key >>> 32);
+                    ByteArrayMutableBiomeBuffer buffer = new ByteArrayMutableBiomeBuffer(new Vector2i(chunkX << 4, chunkZ << 4), CACHED_AREA_SIZE);
+                    CustomWorldChunkManager.this.biomeGenerator.generateBiomes(buffer);
+                    return buffer.detach();
+                }
+            });
+    // Biome ids of 16x16 areas at a quarter of the resolution, only used for scaled biome generators
+    private final LoadingCache<Long, byte[]> scaledBiomeCache = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .recordStats()
+            .build(new CacheLoader<Long, byte[]>() {
+
+                @Override
+                public byte[] load(Long key) {
+                    int x = (int) key.longValue();
+                    int z = (int) (key >>> 32);
+                    ByteArrayMutableBiomeBuffer buffer = new ByteArrayMutableBiomeBuffer(new Vector2i(x << 4, z << 4), CACHED_AREA_SIZE);
+                    CustomWorldChunkManager.this.scaledBiomeGenerator.generateScaledBiomes(buffer);
+                    return buffer.detach();
+                }
+            });
 
     /**
      * Gets a world chunk manager based on the given biome generator.
@@ -76,6 +121,63 @@ private CustomWorldChunkManager(BiomeGenerator biomeGenerator) {
             throw new AssertionError(getClass() + " can only wrap custom biome generators, "
                     + SpongeBiomeGenerator.class + " is not a custom biome generator");
         }
+        this.scaledBiomeGenerator = ReflectiveScaledBiomeGenerator.of(biomeGenerator);
+    }
+
+    /**
+     * Gets the hit and miss statistics of the biome cache.
+     *
+     * @return The statistics
+     */
+    public CacheStats getCacheStats() {
+        return this.biomeCache.stats().plus(this.scaledBiomeCache.stats());
+    }
+
+    /**
+     * Gets the ids of the biomes in the given area, x-major.
+     */
+    private byte[] getBiomeIds(int xStart, int zStart, int xSize, int zSize) {
+        return getBiomeIds(this.biomeCache, xStart, zStart, xSize, zSize);
+    }
+
+    /**
+     * Gets the ids of the biomes in the given area at a quarter of the
+     * resolution, x-major. Each id stands for the 4x4 block area starting at
+     * four times its position.
+     */
+    private byte[] getScaledBiomeIds(int xStart, int zStart, int xSize, int zSize) {
+        if (this.scaledBiomeGenerator != null) {
+            return getBiomeIds(this.scaledBiomeCache, xStart, zStart, xSize, zSize);
+        }
+
+        // Sample the biomes at normal scale
+        byte[] biomesForBlocks = getBiomeIds(xStart * 4, zStart * 4, xSize * 4, zSize * 4);
+        byte[] biomes = new byte[xSize * zSize];
+        for (int z = 0; z < zSize; z++) {
+            for (int x = 0; x < xSize; x++) {
+                biomes[x + z * xSize] = biomesForBlocks[x * 4 + z * 4 * xSize * 4];
+            }
+        }
+        return biomes;
+    }
+
+    private static byte[] getBiomeIds(LoadingCache<Long, byte[]> cache, int xStart, int zStart, int xSize, int zSize) {
+        byte[] biomes = new byte[xSize * zSize];
+        int xEnd = xStart + xSize;
+        int zEnd = zStart + zSize;
+        for (int chunkZ = zStart >> 4; chunkZ <= zEnd - 1 >> 4; chunkZ++) {
+            for (int chunkX = xStart >> 4; chunkX <= xEnd - 1 >> 4; chunkX++) {
+                byte[] cached = cache.getUnchecked(ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ));
+                int minX = Math.max(xStart, chunkX << 4);
+                int maxX = Math.min(xEnd, (chunkX << 4) + 16);
+                int minZ = Math.max(zStart, chunkZ << 4);
+                int maxZ = Math.min(zEnd, (chunkZ << 4) + 16);
+                for (int z = minZ; z < maxZ; z++) {
+                    System.arraycopy(cached, (minX & 15) | (z & 15) << 4, biomes, (minX - xStart) + (z - zStart) * xSize, maxX - minX);
+                }
+            }
+        }
+        return biomes;
     }
 
     /**
@@ -95,54 +197,28 @@ public BiomeGenBase[] getBiomeGenAt(BiomeGenBase[] listToReuse, int x, int z, in
     public BiomeGenBase[] getBiomesForGeneration(BiomeGenBase[] biomeArrayZoomedOut, int xStart, int zStart, int xSize, int zSize) {
         // "Biomes for generation" are a 4x zoomed out (on both the x and z
         // axis) version of the normal biomes
-        // The easiest way to obtain these biomes is to obtain the normal
-        // scale biomes and then downscale them
 
         if (biomeArrayZoomedOut == null || biomeArrayZoomedOut.length < xSize * zSize) {
             biomeArrayZoomedOut = new BiomeGenBase[xSize * zSize];
         }
 
-        // Transform to normal scale
-        int xStartBlock = xStart * 4;
-        int zStartBlock = zStart * 4;
-        int xSizeBlock = xSize * 4;
-        int zSizeBlock = zSize * 4;
-
-        // Get biomes
-        ByteArrayMutableBiomeBuffer buffer = getBiomeBuffer(xStartBlock, zStartBlock, xSizeBlock, zSizeBlock);
-        this.biomeGenerator.generateBiomes(buffer);
-
-        // Downscale
-        byte[] biomesForBlocks = buffer.detach();
+        byte[] biomes = getScaledBiomeIds(xStart, zStart, xSize, zSize);
         BiomeGenBase[] biomeById = BiomeGenBase.getBiomeGenArray();
-        for (int i = 0; i < biomeArrayZoomedOut.length; i++) {
-            BiomeGenBase biome = biomeById[biomesForBlocks[i * 4] & 0xff];
+        for (int i = 0; i < xSize * zSize; i++) {
+            BiomeGenBase biome = biomeById[biomes[i] & 0xff];
             biomeArrayZoomedOut[i] = (biome == null ? BiomeGenBase.ocean : biome);
         }
 
         return biomeArrayZoomedOut;
     }
 
-    private ByteArrayMutableBiomeBuffer getBiomeBuffer(int xStart, int zStart, int xSize, int zSize) {
-        if (xSize == CACHED_AREA_SIZE.getX()
-                && zSize == CACHED_AREA_SIZE.getY()
-                && this.areaForGeneration.isDetached()) {
-            this.areaForGeneration.reuse(new Vector2i(xStart, zStart));
-            return this.areaForGeneration;
-        } else {
-            return new ByteArrayMutableBiomeBuffer(new Vector2i(xStart, zStart), new Vector2i(xSize, zSize));
-        }
-    }
-
     @Override
     public float[] getRainfall(float[] rainfallArray, int x, int z, int xSize, int zSize) {
         if (rainfallArray == null || rainfallArray.length < xSize * zSize) {
             rainfallArray = new float[xSize * zSize];
         }
 
-        ByteArrayMutableBiomeBuffer buffer = getBiomeBuffer(x, z, xSize, zSize);
-        this.biomeGenerator.generateBiomes(buffer);
-        byte[] biomes = buffer.detach();
+        byte[] biomes = getBiomeIds(x, z, xSize, zSize);
         BiomeGenBase[] biomeById = BiomeGenBase.getBiomeGenArray();
 
         for (int i = 0; i < xSize * zSize; i++) {
@@ -169,15 +245,13 @@ public BlockPos findBiomePosition(int xCenter, int zCenter, int range, @Suppress
         int xSizeSegments = xMaxSegment - xStartSegment + 1;
         int zSizeSegments = zMaxSegment - zStartSegment + 1;
 
-        ByteArrayMutableBiomeBuffer buffer = getBiomeBuffer(xStartSegment << 2, zStartSegment << 2, xSizeSegments << 2, zSizeSegments << 2);
-        this.biomeGenerator.generateBiomes(buffer);
-        byte[] biomes = buffer.detach();
+        byte[] biomes = getScaledBiomeIds(xStartSegment, zStartSegment, xSizeSegments, zSizeSegments);
 
         BlockPos blockpos = null;
         int foundPositions = 0;
 
         for (int i = 0; i < xSizeSegments * zSizeSegments; ++i) {
-            BiomeGenBase foundBiome = BiomeGenBase.getBiome(biomes[i << 2] & 0xff);
+            BiomeGenBase foundBiome = BiomeGenBase.getBiome(biomes[i] & 0xff);
 
             if (searchingFor.contains(foundBiome) && (blockpos == null || random.nextInt(foundPositions + 1) == 0)) {
                 int x = xStartSegment + i % xSizeSegments << 2;
@@ -200,12 +274,10 @@ public boolean areBiomesViable(int xCenter, int zCenter, int range, @SuppressWar
         int xSizeSegments = xMaxSegment - xStartSegment + 1;
         int zSizeSegments = zMaxSegment - zStartSegment + 1;
 
-        ByteArrayMutableBiomeBuffer buffer = getBiomeBuffer(xStartSegment << 2, zStartSegment << 2, xSizeSegments << 2, zSizeSegments << 2);
-        this.biomeGenerator.generateBiomes(buffer);
-        byte[] biomes = buffer.detach();
+        byte[] biomes = getScaledBiomeIds(xStartSegment, zStartSegment, xSizeSegments, zSizeSegments);
 
         for (int i = 0; i < xSizeSegments * zSizeSegments; ++i) {
-            BiomeGenBase biomegenbase = BiomeGenBase.getBiome(biomes[i << 2] & 0xff);
+            BiomeGenBase biomegenbase = BiomeGenBase.getBiome(biomes[i] & 0xff);
 
             if (!searchingForBiomes.contains(biomegenbase)) {
                 return false;
@@ -219,16 +291,16 @@ public boolean areBiomesViable(int xCenter, int zCenter, int range, @SuppressWar
     public BiomeGenBase[] loadBlockGeneratorData(BiomeGenBase[] biomeArray, int startX, int startZ, int sizeX, int sizeZ) {
         if (biomeArray == null || biomeArray.length < sizeX * sizeZ) {
             biomeArray = new BiomeGenBase[sizeX * sizeZ];
-        } else {
-            // Biome generators don't have to set every position. If we set
-            // all positions to ocean first, every position not set will be
-            // ocean, and not some random biome from the last time this array
-            // was used
-            Arrays.fill(biomeArray, BiomeGenBase.ocean);
         }
 
-        MutableBiomeBuffer biomeArea = new ObjectArrayMutableBiomeBuffer(biomeArray, new Vector2i(startX, startZ), new Vector2i(sizeX, sizeZ));
-        this.biomeGenerator.generateBiomes(biomeArea);
+        // Biome generators don't have to set every position, every position
+        // not set is ocean
+        byte[] biomes = getBiomeIds(startX, startZ, sizeX, sizeZ);
+        BiomeGenBase[] biomeById = BiomeGenBase.getBiomeGenArray();
+        for (int i = 0; i < sizeX * sizeZ; i++) {
+            BiomeGenBase biome = biomeById[biomes[i] & 0xff];
+            biomeArray[i] = biome == null ? BiomeGenBase.ocean : biome;
+        }
 
         return biomeArray;
     }
@@ -0,0 +1,92 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.gen;
+
+import com.google.common.base.Throwables;
+import org.spongepowered.api.util.gen.MutableBiomeBuffer;
+import org.spongepowered.api.world.gen.BiomeGenerator;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import javax.annotation.Nullable;
+
+/**
+ * Adapts a biome generator that declares a public
+ * {@code generateScaledBiomes(MutableBiomeBuffer)} method without
+ * implementing {@link ScaledBiomeGenerator}, which plugins can't depend on.
+ */
+final class ReflectiveScaledBiomeGenerator implements ScaledBiomeGenerator {
+
+    private static final String METHOD_NAME = "generateScaledBiomes";
+
+    private final BiomeGenerator biomeGenerator;
+    private final Method method;
+
+    /**
+     * Gets a scaled biome generator for the given biome generator, if it
+     * supports generating scaled biomes.
+     *
+     * @param biomeGenerator The biome generator
+     * @return The scaled biome generator, or null if not supported
+     */
+    @Nullable
+    static ScaledBiomeGenerator of(BiomeGenerator biomeGenerator) {
+        if (biomeGenerator instanceof ScaledBiomeGenerator) {
+            return (ScaledBiomeGenerator) biomeGenerator;
+        }
+        Method method;
+        try {
+            method = biomeGenerator.getClass().getMethod(METHOD_NAME, MutableBiomeBuffer.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        // Plugin classes don't have to be public
+        method.setAccessible(true);
+        return new ReflectiveScaledBiomeGenerator(biomeGenerator, method);
+    }
+
+    private ReflectiveScaledBiomeGenerator(BiomeGenerator biomeGenerator, Method method) {
+        this.biomeGenerator = biomeGenerator;
+        this.method = method;
+    }
+
+    @Override
+    public void generateBiomes(MutableBiomeBuffer buffer) {
+        this.biomeGenerator.generateBiomes(buffer);
+    }
+
+    @Override
+    public void generateScaledBiomes(MutableBiomeBuffer buffer) {
+        try {
+            this.method.invoke(this.biomeGenerator, buffer);
+        } catch (InvocationTargetException e) {
+            throw Throwables.propagate(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.gen;
+
+import org.spongepowered.api.util.gen.MutableBiomeBuffer;
+import org.spongepowered.api.world.gen.BiomeGenerator;
+
+/**
+ * A {@link BiomeGenerator} that can also generate biomes at a quarter of the
+ * resolution, as used by Minecraft to lay out terrain and place structures.
+ *
+ * <p>Biome generators that don't implement this interface are asked for
+ * every block of the area and then sampled, which generates sixteen times as
+ * many biomes as needed.</p>
+ *
+ * <p>Plugins built against the API alone can opt in by declaring a public
+ * method with the signature of {@link #generateScaledBiomes} on their biome
+ * generator, it is then called reflectively.</p>
+ */
+public interface ScaledBiomeGenerator extends BiomeGenerator {
+
+    /**
+     * Generates the biomes of the given buffer at a quarter of the
+     * resolution. Each position (x, z) of the buffer stands for the 4x4 block
+     * area starting at the block (4x, 4z), and should be set to the biome
+     * of that area.
+     *
+     * @param buffer The buffer, in units of 4x4 blocks
+     */
+    void generateScaledBiomes(MutableBiomeBuffer buffer);
+
+}
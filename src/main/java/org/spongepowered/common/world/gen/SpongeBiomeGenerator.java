@@ -58,16 +58,17 @@ private SpongeBiomeGenerator(WorldChunkManager worldChunkManager) {
     public void generateBiomes(MutableBiomeBuffer buffer) {
         Vector2i min = buffer.getBiomeMin();
         Vector2i size = buffer.getBiomeSize();
+
+        BiomeGenBase[] biomes = this.worldChunkManager.getBiomeGenAt(null, min.getX(), min.getY(), size.getX(), size.getY(), true);
+
         int xStart = min.getX();
         int zStart = min.getY();
         int xSize = size.getX();
         int zSize = size.getY();
 
-        BiomeGenBase[] biomes = this.worldChunkManager.getBiomeGenAt(null, xStart, zStart, xSize, zSize, true);
-
         for (int i = 0; i < xSize; i++) {
             for (int j = 0; j < zSize; j++) {
-                buffer.setBiome(xStart + i, zStart + j, (BiomeType) biomes[i | j << 4]);
+                buffer.setBiome(xStart + i, zStart + j, (BiomeType) biomes[i + j * xSize]);
             }
         }
     }
@@ -0,0 +1,88 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.spongepowered.api.event.Event;
+
+import java.lang.ref.WeakReference;
+
+public class ClassEventHandlerFactoryTest {
+
+    private final ClassEventHandlerFactory factory = new ClassEventHandlerFactory("org.spongepowered.common.event.handler");
+
+    @Test
+    public void testHandle() throws Exception {
+        TestListener listener = new TestListener();
+        AnnotatedEventHandler handler = this.factory.create(listener, TestListener.class.getMethod("onEvent", Event.class));
+
+        assertSame(listener, handler.getHandle());
+        handler.handle(Mockito.mock(Event.class));
+        assertEquals(1, listener.calls);
+    }
+
+    @Test
+    public void testSharedHandlerClass() throws Exception {
+        AnnotatedEventHandler first = this.factory.create(new TestListener(), TestListener.class.getMethod("onEvent", Event.class));
+        AnnotatedEventHandler second = this.factory.create(new TestListener(), TestListener.class.getMethod("onEvent", Event.class));
+
+        assertSame(first.getClass(), second.getClass());
+    }
+
+    @Test
+    public void testHandlerClassCollected() throws Exception {
+        WeakReference<Class<?>> handlerClass = createHandlerClass();
+        WeakReference<ClassLoader> classLoader = new WeakReference<ClassLoader>(handlerClass.get().getClassLoader());
+
+        for (int i = 0; i < 50 && classLoader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(classLoader.get());
+        assertNull(handlerClass.get());
+    }
+
+    private WeakReference<Class<?>> createHandlerClass() throws Exception {
+        AnnotatedEventHandler handler = this.factory.create(new TestListener(), TestListener.class.getMethod("onEvent", Event.class));
+        return new WeakReference<Class<?>>(handler.getClass());
+    }
+
+    public static class TestListener {
+
+        int calls;
+
+        public void onEvent(Event event) {
+            this.calls++;
+        }
+
+    }
+
+}
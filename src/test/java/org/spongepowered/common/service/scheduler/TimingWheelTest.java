@@ -0,0 +1,94 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.List;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testExpiresInDeadlineOrder() {
+        TimingWheel<String> wheel = new TimingWheel<String>(0L);
+        wheel.schedule("c", 5000L);
+        wheel.schedule("a", 3L);
+        wheel.schedule("b", 70L);
+        wheel.schedule("d", 5000L);
+
+        List<String> expired = Lists.newArrayList();
+        wheel.advance(69L, expired);
+        assertEquals(ImmutableList.of("a"), expired);
+
+        wheel.advance(5000L, expired);
+        assertEquals(ImmutableList.of("a", "b", "c", "d"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testDeadlineBeyondRange() {
+        long deadline = 1L << (TimingWheel.LEVELS * TimingWheel.SLOT_BITS + 2);
+        TimingWheel<String> wheel = new TimingWheel<String>(7L);
+        wheel.schedule("far", deadline);
+
+        List<String> expired = Lists.newArrayList();
+        wheel.advance(deadline - 1, expired);
+        assertTrue(expired.isEmpty());
+        wheel.advance(deadline, expired);
+        assertEquals(ImmutableList.of("far"), expired);
+    }
+
+    @Test
+    public void testPastDeadlineExpiresOnNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<String>(100L);
+        wheel.schedule("late", 10L);
+
+        List<String> expired = Lists.newArrayList();
+        wheel.advance(101L, expired);
+        assertEquals(ImmutableList.of("late"), expired);
+    }
+
+    @Test
+    public void testCancel() {
+        TimingWheel<String> wheel = new TimingWheel<String>(0L);
+        TimingWheel.Node<String> node = wheel.schedule("cancelled", 200L);
+        wheel.schedule("kept", 200L);
+
+        assertTrue(wheel.cancel(node));
+        assertFalse(wheel.cancel(node));
+        assertFalse(node.isScheduled());
+
+        List<String> expired = Lists.newArrayList();
+        wheel.advance(200L, expired);
+        assertEquals(ImmutableList.of("kept"), expired);
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.junit.Test;
+
+import java.util.Set;
+
+public class SpatialIndexTest {
+
+    @Test
+    public void testQueryBox() {
+        SpatialIndex<Object> index = new SpatialIndex<Object>();
+        index.add("inside", 5, 64, 5);
+        index.add("edge", 31.5, 64, -16);
+        index.add("outside", 33, 64, 0);
+        index.add("below", 5, 10, 5);
+
+        Set<String> found = Sets.newHashSet();
+        index.query(-16, 32, -16, 31.5, 96, 16, String.class, null, found);
+        assertEquals(ImmutableSet.of("inside", "edge"), found);
+    }
+
+    @Test
+    public void testQueryRadiusAndType() {
+        SpatialIndex<Object> index = new SpatialIndex<Object>();
+        index.add("near", 100, 64, 100);
+        index.add(42, 101, 64, 101);
+        index.add("corner", 109, 73, 109);
+        index.add("filtered", 99, 64, 99);
+
+        Set<String> found = Sets.newHashSet();
+        index.queryRadius(100, 64, 100, 10, String.class, new Predicate<String>() {
+
+            @Override
+            public boolean apply(String input) {
+                return !input.equals("filtered");
+            }
+        }, found);
+        assertEquals(ImmutableSet.of("near"), found);
+    }
+
+    @Test
+    public void testMoveAndRemove() {
+        SpatialIndex<Object> index = new SpatialIndex<Object>();
+        SpatialIndex.Entry<Object> moving = index.add("moving", 0, 0, 0);
+        SpatialIndex.Entry<Object> removed = index.add("removed", 1, 1, 1);
+        index.add("staying", 2, 2, 2);
+
+        moving.update(1000, 0, -1000);
+        removed.remove();
+        removed.remove();
+        assertEquals(2, index.size());
+
+        Set<String> found = Sets.newHashSet();
+        index.queryRadius(0, 0, 0, 16, String.class, null, found);
+        assertEquals(ImmutableSet.of("staying"), found);
+
+        found.clear();
+        index.query(-1e9, -1e9, -1e9, 1e9, 1e9, 1e9, String.class, null, found);
+        assertEquals(ImmutableSet.of("moving", "staying"), found);
+
+        // Removed entries are not put back by later updates
+        removed.update(2, 2, 2);
+        assertEquals(2, index.size());
+    }
+
+}